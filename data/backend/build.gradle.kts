@@ -1,7 +1,9 @@
 plugins {
     java
+    `java-test-fixtures`
     id("org.springframework.boot") version "3.4.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.mussarellos"
@@ -27,15 +29,22 @@ extra["springModulithVersion"] = "1.3.4"
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-webflux")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.modulith:spring-modulith-starter-core")
     implementation("org.springframework.cloud:spring-cloud-starter-circuitbreaker-reactor-resilience4j")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("io.micrometer:micrometer-java21")
     implementation("org.mapstruct:mapstruct:1.6.3")
     implementation("org.apache.logging.log4j:log4j-core:3.0.0-beta3")
     implementation("commons-validator:commons-validator:1.7")
 
+    implementation("org.postgresql:r2dbc-postgresql")
+
     runtimeOnly("org.postgresql:postgresql")
 
     compileOnly("org.projectlombok:lombok")
@@ -43,11 +52,22 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok")
     annotationProcessor("org.mapstruct:mapstruct-processor:1.6.3")
     annotationProcessor("org.projectlombok:lombok-mapstruct-binding:0.2.0")
+    annotationProcessor(project(":handler-index-processor"))
 
     testImplementation("org.springframework.modulith:spring-modulith-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
+    testImplementation("io.projectreactor:reactor-test")
 
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    // Postgres embarcado com as migrations, usado pelos testes do relay e pelo benchmark do outbox
+    testFixturesApi("io.r2dbc:r2dbc-pool")
+    testFixturesImplementation("io.zonky.test:embedded-postgres:2.1.0")
+    testFixturesImplementation("org.postgresql:r2dbc-postgresql")
+    testFixturesImplementation("org.springframework:spring-core")
+    testFixturesRuntimeOnly("org.postgresql:postgresql")
+
+    jmh(testFixtures(project))
 }
 
 dependencyManagement {
@@ -56,6 +76,22 @@ dependencyManagement {
     }
 }
 
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    includes = providers.gradleProperty("jmh.includes").map { listOf(it) }.orElse(listOf())
+}
+
+tasks.register<JavaExec>("outboxBenchmark") {
+    group = "benchmark"
+    description = "Outbox write/relay throughput and end-to-end lag against an embedded Postgres"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "com.mussarrellos.backend.benchmarks.outbox.OutboxThroughputBenchmark"
+    systemProperties(providers.gradlePropertiesPrefixedBy("outbox.bench.").get())
+    systemProperty("outbox.bench.output", layout.buildDirectory.file("results/outbox-benchmark.csv").get().asFile.path)
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
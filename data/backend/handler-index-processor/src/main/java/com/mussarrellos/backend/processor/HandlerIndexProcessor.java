@@ -0,0 +1,205 @@
+package com.mussarrellos.backend.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Gera, em tempo de compilação, a tabela "handler → tipo da mensagem" consumida pelo
+ * {@code HandlerRegistry}. Qualquer classe concreta que implemente {@code CommandHandler} ou
+ * {@code QueryHandler} (diretamente ou via {@code ICommandHandler}, {@code ICommandWithoutResultHandler}
+ * e {@code IQueryHandler}) entra no índice, dispensando a resolução de genéricos na inicialização.
+ * <p>
+ * Registrado no Gradle como processador incremental {@code aggregating}
+ * ({@code META-INF/gradle/incremental.annotation.processors}): os handlers não têm anotação em
+ * comum, então o índice é chaveado pelas interfaces de handler e cada handler é passado como
+ * elemento de origem do arquivo gerado. Em uma compilação incremental o Gradle reprocessa os tipos
+ * agregados e regenera o índice completo, sem recompilar o módulo inteiro.
+ */
+@SupportedAnnotationTypes("*")
+public class HandlerIndexProcessor extends AbstractProcessor {
+
+    private static final String COMMAND_HANDLER =
+            "com.mussarrellos.backend.buildingblocks.application.commands.CommandHandler";
+    private static final String QUERY_HANDLER =
+            "com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler";
+
+    private static final String INDEX_PACKAGE = "com.mussarrellos.backend.buildingblocks.application.mediator";
+    private static final String INDEX_CLASS = "GeneratedHandlerIndex";
+
+    private final Map<String, String> commandHandlers = new TreeMap<>();
+    private final Map<String, String> queryHandlers = new TreeMap<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+    private boolean written;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!written && hasHandlers()) writeIndex();
+            return false;
+        }
+
+        boolean alreadyWritten = written;
+        int found = 0;
+        for (Element root : roundEnv.getRootElements()) {
+            found += collect(root);
+        }
+
+        if (alreadyWritten && found > 0) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Handlers gerados após a escrita de " + INDEX_CLASS + " não foram indexados");
+        } else if (!alreadyWritten && hasHandlers()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private int collect(Element element) {
+        int found = 0;
+        if (element instanceof TypeElement type) {
+            found += inspect(type);
+            for (Element enclosed : type.getEnclosedElements()) {
+                if (enclosed.getKind() == ElementKind.CLASS) found += collect(enclosed);
+            }
+        }
+        return found;
+    }
+
+    private int inspect(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS
+                || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !isPubliclyReachable(type)) {
+            return 0;
+        }
+
+        int found = 0;
+        String handlerName = type.getQualifiedName().toString();
+
+        String commandType = resolveMessageType(type, COMMAND_HANDLER);
+        if (commandType != null) {
+            commandHandlers.put(handlerName, commandType);
+            found++;
+        }
+
+        String queryType = resolveMessageType(type, QUERY_HANDLER);
+        if (queryType != null) {
+            queryHandlers.put(handlerName, queryType);
+            found++;
+        }
+
+        if (found > 0) originatingElements.add(type);
+        return found;
+    }
+
+    /**
+     * Percorre os supertipos já com os argumentos substituídos e devolve o primeiro argumento
+     * da interface de handler, desde que seja um tipo concreto.
+     */
+    private String resolveMessageType(TypeElement type, String handlerInterface) {
+        Deque<TypeMirror> pending = new ArrayDeque<>(processingEnv.getTypeUtils().directSupertypes(type.asType()));
+
+        while (!pending.isEmpty()) {
+            TypeMirror current = pending.poll();
+            if (current.getKind() != TypeKind.DECLARED) continue;
+
+            DeclaredType declared = (DeclaredType) current;
+            TypeElement element = (TypeElement) declared.asElement();
+            if (element.getQualifiedName().contentEquals(handlerInterface)) {
+                if (declared.getTypeArguments().isEmpty()) return null;
+                TypeMirror messageType = declared.getTypeArguments().get(0);
+                if (messageType.getKind() != TypeKind.DECLARED) return null;
+                TypeElement messageElement = (TypeElement) ((DeclaredType) messageType).asElement();
+                return isPubliclyReachable(messageElement) ? messageElement.getQualifiedName().toString() : null;
+            }
+            pending.addAll(processingEnv.getTypeUtils().directSupertypes(current));
+        }
+        return null;
+    }
+
+    private boolean isPubliclyReachable(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement) {
+            if (!current.getModifiers().contains(Modifier.PUBLIC)) return false;
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private boolean hasHandlers() {
+        return !commandHandlers.isEmpty() || !queryHandlers.isEmpty();
+    }
+
+    private void writeIndex() {
+        written = true;
+        String qualifiedName = INDEX_PACKAGE + "." + INDEX_CLASS;
+        try {
+            JavaFileObject file = processingEnv.getFiler()
+                    .createSourceFile(qualifiedName, originatingElements.toArray(Element[]::new));
+            try (Writer writer = file.openWriter()) {
+                writer.write(render());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Falha ao gerar " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private String render() {
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(INDEX_PACKAGE).append(";\n\n")
+                .append("import java.util.Map;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(INDEX_CLASS).append(" implements StaticHandlerIndex {\n\n");
+
+        renderTable(source, "COMMAND_HANDLERS", commandHandlers);
+        renderTable(source, "QUERY_HANDLERS", queryHandlers);
+
+        return source
+                .append("    @Override\n")
+                .append("    public Map<Class<?>, Class<?>> commandHandlers() {\n")
+                .append("        return COMMAND_HANDLERS;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Map<Class<?>, Class<?>> queryHandlers() {\n")
+                .append("        return QUERY_HANDLERS;\n")
+                .append("    }\n")
+                .append("}\n")
+                .toString();
+    }
+
+    private void renderTable(StringBuilder source, String name, Map<String, String> handlers) {
+        source.append("    private static final Map<Class<?>, Class<?>> ").append(name).append(" = Map.ofEntries(");
+        String separator = "\n";
+        for (Map.Entry<String, String> entry : handlers.entrySet()) {
+            source.append(separator)
+                    .append("            Map.entry(").append(entry.getKey()).append(".class, ")
+                    .append(entry.getValue()).append(".class)");
+            separator = ",\n";
+        }
+        source.append(");\n\n");
+    }
+}
@@ -0,0 +1,169 @@
+package com.mussarrellos.backend.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandlerIndexProcessorTest {
+
+    private static final String GENERATED =
+            "com/mussarrellos/backend/buildingblocks/application/mediator/GeneratedHandlerIndex.java";
+
+    @TempDir
+    Path output;
+
+    @Test
+    void indexesConcreteHandlersThroughIntermediateInterfaces() throws IOException {
+        String index = compile(
+                source("sample.RegisterUser", """
+                        package sample;
+                        public class RegisterUser implements com.mussarrellos.backend.buildingblocks.application.commands.ICommand<String> {}
+                        """),
+                source("sample.RegisterUserHandler", """
+                        package sample;
+                        import com.mussarrellos.backend.buildingblocks.application.commands.ICommandHandler;
+                        public class RegisterUserHandler implements ICommandHandler<RegisterUser, String> {
+                            public reactor.core.publisher.Mono<String> handle(RegisterUser command) { return null; }
+                        }
+                        """),
+                source("sample.FindUser", """
+                        package sample;
+                        public class FindUser {}
+                        """),
+                source("sample.FindUserHandler", """
+                        package sample;
+                        import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
+                        public class FindUserHandler implements QueryHandler<FindUser, String> {
+                            public reactor.core.publisher.Mono<String> handle(FindUser query) { return null; }
+                        }
+                        """));
+
+        assertTrue(index.contains("Map.entry(sample.RegisterUserHandler.class, sample.RegisterUser.class)"), index);
+        assertTrue(index.contains("Map.entry(sample.FindUserHandler.class, sample.FindUser.class)"), index);
+    }
+
+    @Test
+    void skipsAbstractAndNonPublicHandlers() throws IOException {
+        String index = compile(
+                source("sample.FindUser", """
+                        package sample;
+                        public class FindUser {}
+                        """),
+                source("sample.BaseHandler", """
+                        package sample;
+                        import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
+                        public abstract class BaseHandler implements QueryHandler<FindUser, String> {}
+                        """),
+                source("sample.HiddenHandler", """
+                        package sample;
+                        import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
+                        class HiddenHandler implements QueryHandler<FindUser, String> {
+                            public reactor.core.publisher.Mono<String> handle(FindUser query) { return null; }
+                        }
+                        """),
+                source("sample.ConcreteHandler", """
+                        package sample;
+                        public class ConcreteHandler extends BaseHandler {
+                            public reactor.core.publisher.Mono<String> handle(FindUser query) { return null; }
+                        }
+                        """));
+
+        assertTrue(index.contains("Map.entry(sample.ConcreteHandler.class, sample.FindUser.class)"), index);
+        assertFalse(index.contains("BaseHandler.class"), index);
+        assertFalse(index.contains("HiddenHandler.class"), index);
+    }
+
+    @Test
+    void isRegisteredAsAggregatingIncrementalProcessor() throws IOException {
+        try (InputStream registration = getClass().getResourceAsStream("/META-INF/gradle/incremental.annotation.processors")) {
+            assertNotNull(registration, "registro incremental ausente");
+            String entry = new String(registration.readAllBytes(), StandardCharsets.UTF_8).trim();
+            assertEquals(HandlerIndexProcessor.class.getName() + ",aggregating", entry);
+        }
+    }
+
+    private String compile(JavaFileObject... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        List<JavaFileObject> units = new ArrayList<>(List.of(sources));
+        units.addAll(stubs());
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(output.toFile()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(output.toFile()));
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-proc:only"), null, units);
+            task.setProcessors(List.of(new HandlerIndexProcessor()));
+
+            assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+        }
+        return Files.readString(output.resolve(GENERATED));
+    }
+
+    /**
+     * Versões mínimas das interfaces do backend; o processador as identifica pelo nome qualificado.
+     */
+    private static List<JavaFileObject> stubs() {
+        return List.of(
+                source("reactor.core.publisher.Mono", """
+                        package reactor.core.publisher;
+                        public abstract class Mono<T> {}
+                        """),
+                source("com.mussarrellos.backend.buildingblocks.application.commands.ICommand", """
+                        package com.mussarrellos.backend.buildingblocks.application.commands;
+                        public interface ICommand<R> {}
+                        """),
+                source("com.mussarrellos.backend.buildingblocks.application.commands.CommandHandler", """
+                        package com.mussarrellos.backend.buildingblocks.application.commands;
+                        public interface CommandHandler<C, R> { reactor.core.publisher.Mono<R> handle(C command); }
+                        """),
+                source("com.mussarrellos.backend.buildingblocks.application.commands.ICommandHandler", """
+                        package com.mussarrellos.backend.buildingblocks.application.commands;
+                        public interface ICommandHandler<C extends ICommand<R>, R> extends CommandHandler<C, R> {}
+                        """),
+                source("com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler", """
+                        package com.mussarrellos.backend.buildingblocks.application.queries;
+                        public interface QueryHandler<Q, R> { reactor.core.publisher.Mono<R> handle(Q query); }
+                        """),
+                source("com.mussarrellos.backend.buildingblocks.application.mediator.StaticHandlerIndex", """
+                        package com.mussarrellos.backend.buildingblocks.application.mediator;
+                        public interface StaticHandlerIndex {
+                            java.util.Map<Class<?>, Class<?>> commandHandlers();
+                            java.util.Map<Class<?>, Class<?>> queryHandlers();
+                        }
+                        """));
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -1 +1,3 @@
 rootProject.name = "backend"
+
+include("handler-index-processor")
@@ -0,0 +1,64 @@
+package com.mussarrellos.backend.benchmarks.dispatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão e alocação por despacho de query com 5, 50 e 500 handlers registrados.
+ * <p>
+ * {@code ./gradlew jmh} roda todos os benchmarks com o profiler de GC
+ * ({@code gc.alloc.rate.norm} = bytes alocados por operação). Para um subconjunto:
+ * {@code ./gradlew jmh -Pjmh.includes=DispatchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int handlerCount;
+
+    private DispatchFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new DispatchFixture(handlerCount - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public UUID mediatorSend() {
+        return fixture.mediator.send(fixture.query).block();
+    }
+
+    @Benchmark
+    public UUID moduleExecuteQuery() {
+        return fixture.module.executeQuery(fixture.query).block();
+    }
+
+    @Benchmark
+    public UUID legacyGetBeansOfType() {
+        return fixture.legacyMediator.send(fixture.query).block();
+    }
+}
@@ -0,0 +1,98 @@
+package com.mussarrellos.backend.benchmarks.dispatch;
+
+import com.mussarrellos.backend.buildingblocks.application.BaseModule;
+import com.mussarrellos.backend.buildingblocks.application.contracts.IModule;
+import com.mussarrellos.backend.buildingblocks.application.mediator.HandlerRegistry;
+import com.mussarrellos.backend.buildingblocks.application.mediator.Mediator;
+import com.mussarrellos.backend.buildingblocks.application.mediator.SpringMediator;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestPipeline;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQueryHandler;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.GenericTypeResolver;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Contexto Spring mínimo para os benchmarks de despacho: o mediator, o registro de handlers e
+ * uma pipeline vazia, mais {@code fillerHandlers} handlers extras, cada um com o seu tipo de query
+ * ({@link FillerHandlers}), registrados antes do handler medido, de modo que a varredura do
+ * despacho antigo percorre todos eles.
+ */
+final class DispatchFixture implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    final Mediator mediator;
+    final BenchmarkModule module;
+    final LegacyMediator legacyMediator;
+    final BenchmarkQuery query = new BenchmarkQuery(UUID.randomUUID());
+
+    @SuppressWarnings("unchecked")
+    DispatchFixture(int fillerHandlers) {
+        context.registerBean(HandlerRegistry.class);
+        context.registerBean(RequestPipeline.class);
+        context.registerBean(SpringMediator.class);
+        List<Class<?>> fillers = FillerHandlers.compile(fillerHandlers);
+        for (int i = 0; i < fillers.size(); i++) {
+            context.registerBean("fillerQueryHandler" + i, (Class<Object>) fillers.get(i));
+        }
+        context.registerBean(BenchmarkQueryHandler.class);
+        context.registerBean(BenchmarkModule.class, () -> new BenchmarkModule(context));
+        context.refresh();
+
+        this.mediator = context.getBean(Mediator.class);
+        this.module = context.getBean(BenchmarkModule.class);
+        this.legacyMediator = new LegacyMediator(context);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    public record BenchmarkQuery(UUID id) implements IQuery<UUID> {}
+
+    public static class BenchmarkQueryHandler implements IQueryHandler<BenchmarkQuery, UUID> {
+
+        @Override
+        public Mono<UUID> handle(BenchmarkQuery query) {
+            return Mono.just(query.id());
+        }
+    }
+
+    public static class BenchmarkModule extends BaseModule<IModule> {
+
+        BenchmarkModule(ApplicationContext applicationContext) {
+            super(applicationContext, IModule.class);
+        }
+    }
+
+    /**
+     * Reprodução do despacho anterior ao {@code HandlerRegistry}: {@code getBeansOfType} e
+     * resolução de genéricos a cada requisição. Serve de linha de base para as otimizações.
+     */
+    static final class LegacyMediator {
+
+        private final ApplicationContext applicationContext;
+
+        LegacyMediator(ApplicationContext applicationContext) {
+            this.applicationContext = applicationContext;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        <T> Mono<T> send(IQuery<T> query) {
+            for (IQueryHandler handler : applicationContext.getBeansOfType(IQueryHandler.class).values()) {
+                Class<?>[] generics = GenericTypeResolver.resolveTypeArguments(handler.getClass(), IQueryHandler.class);
+                if (generics != null && generics.length > 0 && generics[0].isAssignableFrom(query.getClass())) {
+                    return handler.handle(query);
+                }
+            }
+            return Mono.error(new IllegalArgumentException(
+                    "No handler found for query: " + query.getClass().getSimpleName()));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.mussarrellos.backend.benchmarks.dispatch;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gera {@code count} pares query/handler, cada um com o seu próprio tipo de query, compilando
+ * o código em memória. Com tipos distintos, o índice do {@code HandlerRegistry} e a varredura do
+ * despacho antigo crescem de fato com o número de handlers.
+ */
+final class FillerHandlers {
+
+    private static final String PACKAGE = FillerHandlers.class.getPackageName() + ".fillers";
+
+    private FillerHandlers() {
+    }
+
+    /**
+     * @return as classes dos handlers gerados, na ordem de criação
+     */
+    static List<Class<?>> compile(int count) {
+        if (count == 0) return List.of();
+
+        List<JavaFileObject> sources = new ArrayList<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            sources.add(source("FillerQuery" + i, """
+                    package %s;
+                    public record FillerQuery%d(java.util.UUID id)
+                            implements com.mussarrellos.backend.buildingblocks.application.queries.IQuery<java.util.UUID> {}
+                    """.formatted(PACKAGE, i)));
+            sources.add(source("FillerQuery" + i + "Handler", """
+                    package %1$s;
+                    public class FillerQuery%2$dHandler
+                            implements com.mussarrellos.backend.buildingblocks.application.queries.IQueryHandler<FillerQuery%2$d, java.util.UUID> {
+                        @Override
+                        public reactor.core.publisher.Mono<java.util.UUID> handle(FillerQuery%2$d query) {
+                            return reactor.core.publisher.Mono.just(query.id());
+                        }
+                    }
+                    """.formatted(PACKAGE, i)));
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Os fillers do benchmark precisam de um JDK (javax.tools indisponível)");
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, byte[]> classes = new HashMap<>();
+        try (JavaFileManager fileManager = new InMemoryFileManager(
+                compiler.getStandardFileManager(diagnostics, null, null), classes)) {
+            boolean compiled = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-classpath", System.getProperty("java.class.path"), "-proc:none"), null, sources).call();
+            if (!compiled) {
+                throw new IllegalStateException("Falha ao compilar os fillers: " + diagnostics.getDiagnostics());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        GeneratedClassLoader loader = new GeneratedClassLoader(FillerHandlers.class.getClassLoader(), classes);
+        List<Class<?>> handlers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            handlers.add(loader.load(PACKAGE + ".FillerQuery" + i + "Handler"));
+        }
+        return handlers;
+    }
+
+    private static JavaFileObject source(String simpleName, String code) {
+        URI uri = URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + simpleName + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final Map<String, byte[]> classes;
+
+        private InMemoryFileManager(JavaFileManager delegate, Map<String, byte[]> classes) {
+            super(delegate);
+            this.classes = classes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            URI uri = URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+            return new SimpleJavaFileObject(uri, kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            classes.put(className, toByteArray());
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        private GeneratedClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) throw new ClassNotFoundException(name);
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        private Class<?> load(String name) {
+            try {
+                return loadClass(name);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.mussarrellos.backend.benchmarks.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mussarrellos.backend.buildingblocks.application.outbox.EmbeddedOutboxDatabase;
+import com.mussarrellos.backend.buildingblocks.application.outbox.Outbox;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxMessage;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxMessageFactory;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxNotificationListener;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxPayloadSerializer;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxPendingGauge;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxPollingController;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxProcessorService;
+import com.mussarrellos.backend.buildingblocks.application.outbox.R2dbcOutbox;
+import com.mussarrellos.backend.buildingblocks.domain.events.DomainEventBase;
+import com.mussarrellos.backend.buildingblocks.domain.events.DomainEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Contexto Spring mínimo com o outbox completo (gravação, relay, LISTEN/NOTIFY e controlador de
+ * polling) ligado ao Postgres embarcado. Um listener registra a latência ponta a ponta de cada
+ * evento publicado: do instante de criação do evento até a entrega pelo relay.
+ */
+final class OutboxFixture implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    final Outbox outbox;
+    final OutboxMessageFactory messageFactory;
+    final OutboxProcessorService relay;
+    final LagRecorder lagRecorder;
+
+    OutboxFixture(EmbeddedOutboxDatabase database, Map<String, Object> properties, int expectedMessages, int poolSize) {
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("outboxBenchmark", properties));
+
+        context.registerBean(ConnectionFactory.class, () -> database.connectionPool(poolSize),
+                definition -> definition.setDestroyMethodName("dispose"));
+        context.registerBean(DatabaseClient.class, () -> DatabaseClient.create(context.getBean(ConnectionFactory.class)));
+        context.registerBean(ObjectMapper.class, () -> JsonMapper.builder().findAndAddModules().build());
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(DomainEventPublisher.class);
+        context.registerBean(OutboxPayloadSerializer.class);
+        context.registerBean(OutboxMessageFactory.class);
+        context.registerBean(R2dbcOutbox.class);
+        context.registerBean(OutboxPendingGauge.class);
+        context.registerBean(OutboxPollingController.class);
+        context.registerBean(OutboxProcessorService.class);
+        context.registerBean(OutboxNotificationListener.class);
+        context.registerBean(LagRecorder.class, () -> new LagRecorder(expectedMessages));
+        context.refresh();
+
+        this.outbox = context.getBean(Outbox.class);
+        this.messageFactory = context.getBean(OutboxMessageFactory.class);
+        this.relay = context.getBean(OutboxProcessorService.class);
+        this.lagRecorder = context.getBean(LagRecorder.class);
+
+        // Sem Spring Boot não há ApplicationReadyEvent
+        context.getBean(OutboxNotificationListener.class).start();
+    }
+
+    List<OutboxMessage> messages(int count, List<UUID> aggregates, String padding) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> messageFactory.createFrom(
+                        aggregates.get(Math.floorMod(i, aggregates.size())), new BenchmarkEvent(padding)))
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    public static class BenchmarkEvent extends DomainEventBase {
+
+        private String padding;
+
+        // Usado pelo Jackson na desserialização feita pelo relay
+        public BenchmarkEvent() {
+        }
+
+        BenchmarkEvent(String padding) {
+            this.padding = padding;
+        }
+
+        public String getPadding() {
+            return padding;
+        }
+
+        public void setPadding(String padding) {
+            this.padding = padding;
+        }
+    }
+
+    /**
+     * Latências em microssegundos, na ordem de chegada. Republicações (entrega pelo menos uma vez)
+     * são contadas à parte e não entram nos percentis.
+     */
+    public static final class LagRecorder {
+
+        private final long[] lagsMicros;
+        private final AtomicInteger received = new AtomicInteger();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        private volatile long lastPublishNanos;
+
+        LagRecorder(int expectedMessages) {
+            this.lagsMicros = new long[expectedMessages];
+        }
+
+        @EventListener
+        public void onPublished(BenchmarkEvent event) {
+            if (!seen.add(event.getId())) {
+                duplicates.incrementAndGet();
+                return;
+            }
+            long lag = TimeUnit.NANOSECONDS.toMicros(Duration.between(event.getOccurredOn(), Instant.now()).toNanos());
+            int index = received.getAndIncrement();
+            if (index < lagsMicros.length) lagsMicros[index] = lag;
+            lastPublishNanos = System.nanoTime();
+        }
+
+        int received() {
+            return received.get();
+        }
+
+        long duplicates() {
+            return duplicates.get();
+        }
+
+        long lastPublishNanos() {
+            return lastPublishNanos;
+        }
+
+        /**
+         * Percentil (0 a 100) das latências registradas, em milissegundos.
+         */
+        static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) return Double.NaN;
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1000.0;
+        }
+
+        long[] sortedLags() {
+            long[] sorted = Arrays.copyOf(lagsMicros, Math.min(received.get(), lagsMicros.length));
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.mussarrellos.backend.benchmarks.outbox;
+
+import com.mussarrellos.backend.buildingblocks.application.outbox.EmbeddedOutboxDatabase;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Vazão de gravação e de publicação do outbox, ponta a ponta, contra um Postgres embarcado.
+ * Cada combinação de tamanho de mensagem, tamanho de lote, concorrência e formato de payload
+ * grava {@code messages} eventos com {@code R2dbcOutbox.save} enquanto o relay publica, e
+ * reporta inserções/s, publicações/s e os percentis da latência criação → publicação.
+ * <p>
+ * {@code ./gradlew outboxBenchmark} roda a matriz padrão. Os eixos são configuráveis, por exemplo:
+ * {@code ./gradlew outboxBenchmark -Poutbox.bench.payload-bytes=256,8192 -Poutbox.bench.concurrency=4}.
+ * O resultado também vai para {@code build/results/outbox-benchmark.csv}.
+ */
+public final class OutboxThroughputBenchmark {
+
+    private static final String HEADER = "format,payloadBytes,batchSize,concurrency,messages,"
+            + "insertsPerSec,publishesPerSec,lagP50Ms,lagP95Ms,lagP99Ms,lagMaxMs,duplicates";
+
+    private OutboxThroughputBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int messages = Integer.getInteger("outbox.bench.messages", 20_000);
+        int warmupMessages = Integer.getInteger("outbox.bench.warmup-messages", 2_000);
+        int aggregates = Integer.getInteger("outbox.bench.aggregates", 1_000);
+        long timeoutSeconds = Long.getLong("outbox.bench.timeout-seconds", 300);
+        int[] payloadSizes = ints("outbox.bench.payload-bytes", "128,2048,16384");
+        int[] batchSizes = ints("outbox.bench.batch-sizes", "50,500");
+        int[] concurrencies = ints("outbox.bench.concurrency", "1,8");
+        String[] formats = System.getProperty("outbox.bench.formats", "json").split(",");
+        Path output = Path.of(System.getProperty("outbox.bench.output", "build/results/outbox-benchmark.csv"));
+
+        // O relay registra cada lote em debug; a saída do benchmark fica só com o resultado
+        LoggingSystem.get(OutboxThroughputBenchmark.class.getClassLoader())
+                .setLogLevel("com.mussarrellos", LogLevel.WARN);
+
+        List<UUID> aggregateIds = IntStream.range(0, aggregates).mapToObj(i -> UUID.randomUUID()).toList();
+        List<Result> results = new ArrayList<>();
+
+        try (EmbeddedOutboxDatabase database = new EmbeddedOutboxDatabase()) {
+            System.out.println("Warmup...");
+            run(database, new Scenario(formats[0].trim(), payloadSizes[0], batchSizes[0], concurrencies[0], warmupMessages),
+                    aggregateIds, timeoutSeconds);
+
+            System.out.println(HEADER);
+            for (String format : formats) {
+                for (int payloadSize : payloadSizes) {
+                    for (int batchSize : batchSizes) {
+                        for (int concurrency : concurrencies) {
+                            Scenario scenario = new Scenario(format.trim(), payloadSize, batchSize, concurrency, messages);
+                            Result result = run(database, scenario, aggregateIds, timeoutSeconds);
+                            results.add(result);
+                            System.out.println(result.toCsv());
+                        }
+                    }
+                }
+            }
+        }
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(output))) {
+            writer.println(HEADER);
+            results.forEach(result -> writer.println(result.toCsv()));
+        }
+        System.out.println("Resultados gravados em " + output.toAbsolutePath());
+    }
+
+    private static Result run(EmbeddedOutboxDatabase database, Scenario scenario, List<UUID> aggregateIds,
+                              long timeoutSeconds) throws Exception {
+        database.reset();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("outbox.payload.format", scenario.format());
+        properties.put("outbox.insert-batch-size", scenario.batchSize());
+        properties.put("outbox.batch-size", scenario.batchSize());
+        properties.put("outbox.lanes", scenario.concurrency());
+
+        String padding = "x".repeat(scenario.payloadBytes());
+        int saves = (scenario.messages() + scenario.batchSize() - 1) / scenario.batchSize();
+
+        try (OutboxFixture fixture = new OutboxFixture(database, properties, scenario.messages(), scenario.concurrency() + 4)) {
+            long startedAt = System.nanoTime();
+            Flux.range(0, saves)
+                    .flatMap(save -> Mono.defer(() -> {
+                        int count = Math.min(scenario.batchSize(), scenario.messages() - save * scenario.batchSize());
+                        return fixture.outbox.save(fixture.messages(count, aggregateIds, padding));
+                    }), scenario.concurrency())
+                    .then()
+                    .block();
+            long writtenAt = System.nanoTime();
+
+            long deadline = writtenAt + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            while (fixture.lagRecorder.received() < scenario.messages()) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timeout: " + fixture.lagRecorder.received() + " de "
+                            + scenario.messages() + " mensagens publicadas em " + scenario);
+                }
+                Thread.sleep(5);
+            }
+            long publishedAt = fixture.lagRecorder.lastPublishNanos();
+
+            long[] lags = fixture.lagRecorder.sortedLags();
+            return new Result(scenario,
+                    perSecond(scenario.messages(), writtenAt - startedAt),
+                    perSecond(scenario.messages(), publishedAt - startedAt),
+                    OutboxFixture.LagRecorder.percentileMillis(lags, 50),
+                    OutboxFixture.LagRecorder.percentileMillis(lags, 95),
+                    OutboxFixture.LagRecorder.percentileMillis(lags, 99),
+                    OutboxFixture.LagRecorder.percentileMillis(lags, 100),
+                    fixture.lagRecorder.duplicates());
+        }
+    }
+
+    private static double perSecond(int count, long nanos) {
+        return count / (nanos / 1_000_000_000.0);
+    }
+
+    private static int[] ints(String property, String defaultValue) {
+        return Arrays.stream(System.getProperty(property, defaultValue).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    record Scenario(String format, int payloadBytes, int batchSize, int concurrency, int messages) {}
+
+    record Result(Scenario scenario, double insertsPerSec, double publishesPerSec,
+                  double lagP50Ms, double lagP95Ms, double lagP99Ms, double lagMaxMs, long duplicates) {
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.0f,%.0f,%.2f,%.2f,%.2f,%.2f,%d",
+                    scenario.format(), scenario.payloadBytes(), scenario.batchSize(), scenario.concurrency(),
+                    scenario.messages(), insertsPerSec, publishesPerSec, lagP50Ms, lagP95Ms, lagP99Ms, lagMaxMs,
+                    duplicates);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mussarrellos.backend.buildingblocks.api.filters;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prazos das requisições HTTP. {@code routes} associa padrões de caminho a prazos próprios; o
+ * primeiro padrão que casar vale. O header {@code X-Request-Timeout} (em milissegundos) substitui
+ * o prazo da rota, limitado a {@code max-timeout}.
+ */
+@ConfigurationProperties(prefix = "deadline")
+public record DeadlineProperties(
+        @DefaultValue("10s") Duration defaultTimeout,
+        @DefaultValue("30s") Duration maxTimeout,
+        Map<String, Duration> routes) {
+
+    public DeadlineProperties {
+        routes = routes == null ? Map.of() : new LinkedHashMap<>(routes);
+    }
+}
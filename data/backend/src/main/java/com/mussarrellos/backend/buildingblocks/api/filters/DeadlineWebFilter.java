@@ -0,0 +1,77 @@
+package com.mussarrellos.backend.buildingblocks.api.filters;
+
+import com.mussarrellos.backend.buildingblocks.application.deadline.Deadline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Define o {@link Deadline} de cada requisição e o coloca no contexto Reactor, de onde o
+ * mediator e os repositórios o leem.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineWebFilter implements WebFilter, Ordered {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final DeadlineProperties properties;
+    private final List<RouteTimeout> routeTimeouts;
+
+    public DeadlineWebFilter(DeadlineProperties properties) {
+        this.properties = properties;
+        this.routeTimeouts = properties.routes().entrySet().stream()
+                .map(route -> new RouteTimeout(PathPatternParser.defaultInstance.parse(route.getKey()), route.getValue()))
+                .toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Deadline deadline = Deadline.after(timeoutFor(exchange));
+        return chain.filter(exchange)
+                .contextWrite(deadline::putInto);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private Duration timeoutFor(ServerWebExchange exchange) {
+        Duration routeTimeout = routeTimeout(exchange.getRequest().getPath().pathWithinApplication());
+        String requested = exchange.getRequest().getHeaders().getFirst(TIMEOUT_HEADER);
+        if (requested == null) {
+            return routeTimeout;
+        }
+
+        try {
+            Duration requestedTimeout = Duration.ofMillis(Long.parseLong(requested.trim()));
+            if (requestedTimeout.isNegative()) return routeTimeout;
+            return requestedTimeout.compareTo(properties.maxTimeout()) > 0 ? properties.maxTimeout() : requestedTimeout;
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid {} header: {}", TIMEOUT_HEADER, requested);
+            return routeTimeout;
+        }
+    }
+
+    private Duration routeTimeout(PathContainer path) {
+        for (RouteTimeout route : routeTimeouts) {
+            if (route.pattern().matches(path)) return route.timeout();
+        }
+        return properties.defaultTimeout();
+    }
+
+    private record RouteTimeout(PathPattern pattern, Duration timeout) {}
+}
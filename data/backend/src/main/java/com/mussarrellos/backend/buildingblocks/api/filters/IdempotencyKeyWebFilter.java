@@ -0,0 +1,40 @@
+package com.mussarrellos.backend.buildingblocks.api.filters;
+
+import com.mussarrellos.backend.buildingblocks.application.idempotency.IdempotencyKey;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Copia o header {@code Idempotency-Key} para o contexto Reactor, onde o mediator o lê.
+ */
+@Component
+public class IdempotencyKeyWebFilter implements WebFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(IdempotencyKey.HEADER);
+        if (header == null) {
+            return chain.filter(exchange);
+        }
+
+        IdempotencyKey key;
+        try {
+            key = new IdempotencyKey(header.trim());
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+        return chain.filter(exchange)
+                .contextWrite(key::putInto);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
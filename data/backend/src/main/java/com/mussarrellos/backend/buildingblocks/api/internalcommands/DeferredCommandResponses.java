@@ -0,0 +1,37 @@
+package com.mussarrellos.backend.buildingblocks.api.internalcommands;
+
+import com.mussarrellos.backend.buildingblocks.application.internalcommands.CommandsScheduler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Apoio aos controllers que aceitam {@code Prefer: respond-async} (RFC 7240) em comandos
+ * {@code @DeferredCommand}: o comando é enfileirado e a resposta é 202 com a URL de status.
+ */
+public final class DeferredCommandResponses {
+
+    public static final String PREFER_HEADER = "Prefer";
+    public static final String RESPOND_ASYNC = "respond-async";
+
+    private DeferredCommandResponses() {}
+
+    public static boolean prefersAsync(String prefer) {
+        return prefer != null && prefer.toLowerCase().contains(RESPOND_ASYNC);
+    }
+
+    public static <T> Mono<ResponseEntity<T>> accepted(CommandsScheduler commandsScheduler, Object command) {
+        return commandsScheduler.enqueue(command)
+                .map(id -> ResponseEntity.accepted().location(statusUri(id)).<T>build());
+    }
+
+    private static URI statusUri(UUID id) {
+        return UriComponentsBuilder.fromPath(InternalCommandController.BASE_PATH)
+                .path("/{id}")
+                .buildAndExpand(id)
+                .toUri();
+    }
+}
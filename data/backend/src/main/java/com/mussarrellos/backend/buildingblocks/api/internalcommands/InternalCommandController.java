@@ -0,0 +1,34 @@
+package com.mussarrellos.backend.buildingblocks.api.internalcommands;
+
+import com.mussarrellos.backend.buildingblocks.application.internalcommands.CommandsScheduler;
+import com.mussarrellos.backend.buildingblocks.application.internalcommands.InternalCommandStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * URL de status dos comandos aceitos com 202.
+ */
+@RestController
+@RequestMapping(InternalCommandController.BASE_PATH)
+@RequiredArgsConstructor
+public class InternalCommandController {
+
+    public static final String BASE_PATH = "/mussarellos/internal-commands";
+
+    private final CommandsScheduler commandsScheduler;
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<InternalCommandStatus>> getStatus(@PathVariable UUID id) {
+        return commandsScheduler.findStatus(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,45 @@
+package com.mussarrellos.backend.buildingblocks.api.outbox;
+
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxDeadLetter;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxDeadLetters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Consulta e reenfileiramento das mensagens do outbox que esgotaram as tentativas.
+ */
+@RestController
+@RequestMapping(OutboxDeadLetterController.BASE_PATH)
+@RequiredArgsConstructor
+public class OutboxDeadLetterController {
+
+    public static final String BASE_PATH = "/mussarellos/outbox/dead-letters";
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final OutboxDeadLetters deadLetters;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<OutboxDeadLetter> list(@RequestParam(defaultValue = "100") int limit) {
+        return deadLetters.findRecent(Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    @PostMapping("/{id}/requeue")
+    public Mono<ResponseEntity<Void>> requeue(@PathVariable UUID id) {
+        return deadLetters.requeue(id)
+                .map(requeued -> requeued
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+}
@@ -3,147 +3,153 @@ package com.mussarrellos.backend.buildingblocks.application;
 import com.mussarrellos.backend.buildingblocks.application.commands.CommandHandler;
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommand;
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommandWithoutResult;
+import com.mussarrellos.backend.buildingblocks.application.mediator.HandlerRegistry;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestPipeline;
 import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
 import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
-import org.springframework.core.GenericTypeResolver;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.function.Supplier;
-
+import java.util.Optional;
+
+/**
+ * Despacho de comandos e queries de um módulo.
+ * O handler de cada tipo de mensagem é resolvido uma única vez e memorizado junto com um
+ * invocador direto, de modo que chamadas entre módulos não bloqueiam nem usam reflexão.
+ * Toda execução passa pela mesma {@link RequestPipeline} usada pelo {@code Mediator}.
+ */
 @RequiredArgsConstructor
 public abstract class AbstractModule<T> {
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    @SuppressWarnings("unchecked")
+    private static final HandlerInvoker COMMAND_INVOKER =
+            (handler, message) -> ((CommandHandler<Object, Object>) handler).handle(message);
+
+    @SuppressWarnings("unchecked")
+    private static final HandlerInvoker QUERY_INVOKER =
+            (handler, message) -> ((QueryHandler<Object, Object>) handler).handle(message);
+
     private final ApplicationContext applicationContext;
     private final Class<T> moduleInterface;
 
+    private volatile RequestPipeline pipeline;
+
+    private final ClassValue<BoundHandler> commandHandlers = new ClassValue<>() {
+        @Override
+        protected BoundHandler computeValue(Class<?> commandType) {
+            return resolve(commandType, handlerRegistry().findCommandHandler(commandType), COMMAND_INVOKER);
+        }
+    };
+
+    private final ClassValue<BoundHandler> queryHandlers = new ClassValue<>() {
+        @Override
+        protected BoundHandler computeValue(Class<?> queryType) {
+            return resolve(queryType, handlerRegistry().findQueryHandler(queryType), QUERY_INVOKER);
+        }
+    };
+
     protected <R> Mono<R> executeCommand(ICommand<R> command) {
-        return executeWithDirectHandler(
-                command,
-                () -> findCommandHandler(command),
-                () -> findHandlerByReflection(command)
-        );
+        return dispatch(commandHandlers, command);
     }
 
     protected Mono<Void> executeCommand(ICommandWithoutResult command) {
-        return executeWithDirectHandler(
-                command,
-                () -> findCommandWithoutResultHandler(command),
-                () -> findHandlerByReflection(command)
-        );
+        return dispatch(commandHandlers, command);
     }
 
     protected <R> Mono<R> executeQuery(IQuery<R> query) {
-        return executeWithDirectHandler(
-                query,
-                () -> findQueryHandler(query),
-                () -> findHandlerByReflection(query)
-        );
+        return dispatch(queryHandlers, query);
     }
 
-    private <M, H, R> Mono<R> executeWithDirectHandler(M message, Supplier<H> directHandlerSupplier,
-                                                       Supplier<Object> reflectionHandlerSupplier) {
-        try {
-            H handler = directHandlerSupplier.get();
-            return invokeDirectHandler(handler, message);
-        } catch (Exception e) {
-            return Mono.defer(() -> {
-                try {
-                    Object handler = reflectionHandlerSupplier.get();
-                    return invokeHandlerByReflection(handler, message);
-                } catch (Exception ex) {
-                    return Mono.error(ex);
-                }
-            });
-        }
+    private <R> Mono<R> dispatch(ClassValue<BoundHandler> handlers, Object message) {
+        return Mono.defer(() -> {
+            BoundHandler bound = handlers.get(message.getClass());
+            return requestPipeline().execute(message, bound.handler(), () -> bound.invoke(message));
+        });
     }
 
-    @SuppressWarnings("unchecked")
-    private <M, H, R> Mono<R> invokeDirectHandler(H handler, M message) {
-        try {
-            if (handler instanceof CommandHandler) {
-                return ((CommandHandler<M, R>) handler).handle(message);
-            } else if (handler instanceof QueryHandler) {
-                return ((QueryHandler<M, R>) handler).handle(message);
-            }
-            return Mono.error(new IllegalArgumentException("Handler type não suportado"));
-        } catch (Exception e) {
-            return Mono.error(e);
+    private RequestPipeline requestPipeline() {
+        RequestPipeline current = pipeline;
+        if (current == null) {
+            current = applicationContext.getBean(RequestPipeline.class);
+            pipeline = current;
         }
+        return current;
     }
 
-    @SuppressWarnings("unchecked")
-    private <M, R> Mono<R> invokeHandlerByReflection(Object handler, M message) {
-        try {
-            Method method = handler.getClass().getMethod("handle", message.getClass());
-            return (Mono<R>) method.invoke(handler, message);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            return Mono.error(new RuntimeException(
-                    "Falha ao invocar o handler para " + message.getClass().getSimpleName(), e));
-        }
+    private HandlerRegistry handlerRegistry() {
+        return applicationContext.getBean(HandlerRegistry.class);
     }
 
-    @SuppressWarnings("unchecked")
-    private <R> CommandHandler<ICommand<R>, R> findCommandHandler(ICommand<R> command) {
-        return (CommandHandler<ICommand<R>, R>) findHandlerByType(
-                command,
-                CommandHandler.class,
-                "command"
-        );
+    private BoundHandler resolve(Class<?> messageType, Optional<?> registered, HandlerInvoker invoker) {
+        return registered
+                .<BoundHandler>map(handler -> new BoundHandler(handler, invoker))
+                .orElseGet(() -> findHandlerByConvention(messageType));
     }
 
-    @SuppressWarnings("unchecked")
-    private CommandHandler<ICommandWithoutResult, Void> findCommandWithoutResultHandler(ICommandWithoutResult command) {
-        return (CommandHandler<ICommandWithoutResult, Void>) findHandlerByType(
-                command,
-                CommandHandler.class,
-                "command"
-        );
-    }
+    /**
+     * Último recurso para handlers que não implementam as interfaces de handler:
+     * localiza o bean pela convenção de nomes e gera um invocador com {@link LambdaMetafactory},
+     * evitando {@code Method.invoke} a cada chamada.
+     */
+    private BoundHandler findHandlerByConvention(Class<?> messageType) {
+        String expectedHandlerName = messageType.getSimpleName() + "Handler";
+        String expectedPackage = messageType.getPackage().getName() + ".handlers";
+        String expectedHandlerClassName = expectedPackage + "." + expectedHandlerName;
 
-    @SuppressWarnings("unchecked")
-    private <R> QueryHandler<IQuery<R>, R> findQueryHandler(IQuery<R> query) {
-        return (QueryHandler<IQuery<R>, R>) findHandlerByType(
-                query,
-                QueryHandler.class,
-                "query"
-        );
+        try {
+            Class<?> handlerClass = Class.forName(expectedHandlerClassName);
+            Object handler = applicationContext.getBean(handlerClass);
+            Method method = handlerClass.getMethod("handle", messageType);
+            return new BoundHandler(handler, createInvoker(method));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Handler não encontrado para: " + messageType.getSimpleName(), e);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(
+                    "Falha ao invocar o handler para " + messageType.getSimpleName(), e);
+        }
     }
 
-    private Object findHandlerByType(Object message, Class<?> handlerType, String messageTypeDescription) {
-        Class<?> messageType = message.getClass();
-        
-        return Flux.fromIterable(applicationContext.getBeansOfType(handlerType).values())
-                .filter(handler -> isHandlerForMessage(handler, handlerType, messageType))
-                .next()
-                .switchIfEmpty(Mono.error(new IllegalArgumentException(
-                        "Handler não encontrado para " + messageTypeDescription + ": " + messageType.getSimpleName())))
-                .block();
+    private static HandlerInvoker createInvoker(Method method) {
+        if (!Mono.class.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalArgumentException("O método handle de " + method.getDeclaringClass().getSimpleName()
+                    + " deve retornar Mono");
+        }
+
+        try {
+            MethodHandle target = LOOKUP.unreflect(method);
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "invoke",
+                    MethodType.methodType(HandlerInvoker.class),
+                    MethodType.methodType(Mono.class, Object.class, Object.class),
+                    target,
+                    target.type());
+            return (HandlerInvoker) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(
+                    "Falha ao gerar invocador para " + method.getDeclaringClass().getSimpleName(), e);
+        }
     }
 
-    private boolean isHandlerForMessage(Object handler, Class<?> handlerType, Class<?> messageType) {
-        Class<?>[] generics = GenericTypeResolver.resolveTypeArguments(
-                handler.getClass(), handlerType);
-        return generics != null && generics.length > 0 &&
-                generics[0].isAssignableFrom(messageType);
+    @FunctionalInterface
+    interface HandlerInvoker {
+        Mono<?> invoke(Object handler, Object message);
     }
 
-    private Object findHandlerByReflection(Object message) {
-        Class<?> messageType = message.getClass();
-        String expectedHandlerName = messageType.getSimpleName() + "Handler";
-        String expectedPackage = messageType.getPackage().getName() + ".handlers";
-        String expectedHandlerClassName = expectedPackage + "." + expectedHandlerName;
-        
-        try {
-            Class<?> handlerClass = Class.forName(expectedHandlerClassName);
-            return applicationContext.getBean(handlerClass);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("Handler não encontrado para: " + messageType.getSimpleName(), e);
+    private record BoundHandler(Object handler, HandlerInvoker invoker) {
+
+        @SuppressWarnings("unchecked")
+        <R> Mono<R> invoke(Object message) {
+            return (Mono<R>) invoker.invoke(handler, message);
         }
     }
-} 
\ No newline at end of file
+}
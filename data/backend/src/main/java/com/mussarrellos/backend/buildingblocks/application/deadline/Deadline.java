@@ -0,0 +1,76 @@
+package com.mussarrellos.backend.buildingblocks.application.deadline;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Prazo absoluto de uma requisição, carregado no contexto Reactor. Tudo que é executado com
+ * {@link #bound(Mono)} falha com {@link DeadlineExceededException} e é cancelado quando o prazo
+ * vence — inclusive consultas R2DBC, que assim devolvem a conexão ao pool.
+ */
+public final class Deadline {
+
+    private static final Class<Deadline> CONTEXT_KEY = Deadline.class;
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static Optional<Deadline> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public Context putInto(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Remove o prazo do contexto, para execuções que não pertencem a uma única requisição.
+     */
+    public static Context removeFrom(Context context) {
+        return context.delete(CONTEXT_KEY);
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Limita {@code source} ao prazo do contexto; sem prazo no contexto, devolve o próprio source.
+     */
+    public static <T> Mono<T> bound(Mono<T> source) {
+        return Mono.deferContextual(context -> from(context)
+                .map(deadline -> deadline.isExpired()
+                        ? Mono.<T>error(new DeadlineExceededException())
+                        : source.timeout(deadline.remaining(), Mono.error(DeadlineExceededException::new)))
+                .orElse(source));
+    }
+
+    /**
+     * Limita o fluxo inteiro ao prazo, não só o primeiro elemento: quando o prazo vence, o source
+     * é cancelado e o fluxo termina com {@link DeadlineExceededException}, mesmo no meio da emissão.
+     */
+    public static <T> Flux<T> bound(Flux<T> source) {
+        return Flux.deferContextual(context -> from(context)
+                .map(deadline -> deadline.isExpired()
+                        ? Flux.<T>error(new DeadlineExceededException())
+                        : source.takeUntilOther(Mono.delay(deadline.remaining())
+                                .then(Mono.error(DeadlineExceededException::new))))
+                .orElse(source));
+    }
+}
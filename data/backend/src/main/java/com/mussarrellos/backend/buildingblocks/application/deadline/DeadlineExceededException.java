@@ -0,0 +1,14 @@
+package com.mussarrellos.backend.buildingblocks.application.deadline;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * O prazo da requisição venceu antes do término do processamento.
+ */
+public class DeadlineExceededException extends ResponseStatusException {
+
+    public DeadlineExceededException() {
+        super(HttpStatus.GATEWAY_TIMEOUT, "Prazo da requisição expirado");
+    }
+}
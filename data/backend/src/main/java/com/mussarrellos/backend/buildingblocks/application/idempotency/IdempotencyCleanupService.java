@@ -0,0 +1,28 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyCleanupService {
+
+    private final IdempotencyStore idempotencyStore;
+
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 0 * * * ?}")
+    public void cleanupExpiredKeys() {
+        idempotencyStore.deleteExpired()
+            .doOnSuccess(count -> {
+                if (count != null && count > 0) {
+                    log.info("Limpeza de chaves de idempotência concluída: {} chaves removidas", count);
+                }
+            })
+            .doOnError(error -> log.error("Erro ao remover chaves de idempotência expiradas", error))
+            .onErrorResume(error -> Mono.empty())
+            .subscribe();
+    }
+}
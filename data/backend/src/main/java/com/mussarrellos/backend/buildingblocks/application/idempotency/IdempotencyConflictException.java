@@ -0,0 +1,14 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Outra requisição com a mesma chave de idempotência ainda está em processamento.
+ */
+public class IdempotencyConflictException extends ResponseStatusException {
+
+    public IdempotencyConflictException(String key) {
+        super(HttpStatus.CONFLICT, "Requisição com a chave de idempotência " + key + " ainda em processamento");
+    }
+}
@@ -0,0 +1,211 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicação de comandos {@link Idempotent} pela {@link IdempotencyKey} do contexto.
+ * <p>
+ * A chave é guardada por principal autenticado ({@link ScopedKey}) junto com o SHA-256 do
+ * payload. A primeira requisição reserva a chave no {@link IdempotencyStore}, executa a ação e
+ * grava o resultado; repetições com o mesmo payload recebem o resultado gravado, e com outro
+ * payload recebem {@link IdempotencyKeyMismatchException}. Enquanto a primeira não termina, as
+ * repetições recebem {@link IdempotencyConflictException}. Se a ação falhar a reserva é
+ * liberada, e uma reserva abandonada (instância que caiu) expira após {@code claim-timeout}.
+ * Resultados concluídos ficam também num cache local limitado, nunca além do
+ * {@link Idempotent#ttlSeconds()} do comando, evitando ida ao banco nas repetições em rajada.
+ * <p>
+ * Usado pelo pipeline do mediator e pelo enfileiramento de comandos assíncronos, cada um com a
+ * sua {@code operation}, para que a mesma chave não misture a resposta síncrona com a de 202.
+ */
+@Slf4j
+@Component
+public class IdempotencyGuard {
+
+    static final String ANONYMOUS_SCOPE = "anonymous";
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration claimTimeout;
+    private final Cache<ScopedKey, IdempotencyRecord> completed;
+
+    private final ClassValue<Optional<Idempotent>> idempotentTypes = new ClassValue<>() {
+        @Override
+        protected Optional<Idempotent> computeValue(Class<?> requestType) {
+            return Optional.ofNullable(AnnotationUtils.findAnnotation(requestType, Idempotent.class));
+        }
+    };
+
+    public IdempotencyGuard(IdempotencyStore store,
+                            ObjectMapper objectMapper,
+                            @Value("${idempotency.claim-timeout:5m}") Duration claimTimeout,
+                            @Value("${idempotency.cache.maximum-size:10000}") long cacheMaximumSize,
+                            @Value("${idempotency.cache.ttl:10m}") Duration cacheTtl) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.claimTimeout = claimTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new CappedExpiry(cacheTtl))
+                .build();
+    }
+
+    /**
+     * Executa {@code action} deduplicada pela {@link IdempotencyKey} do contexto. Sem chave no
+     * contexto, ou se {@code request} não for {@link Idempotent}, apenas executa.
+     *
+     * @param operation identifica o que a ação faz com o request; compõe a chave guardada
+     */
+    public <R> Mono<R> execute(Object request, String operation, Supplier<Mono<R>> action) {
+        Idempotent settings = idempotentTypes.get(request.getClass()).orElse(null);
+        if (settings == null) {
+            return Mono.defer(action);
+        }
+
+        return Mono.deferContextual(context -> IdempotencyKey.from(context)
+                .map(key -> Mono.zip(scope(), requestHash(request))
+                        .flatMap(scopeAndHash -> deduplicate(
+                                new ScopedKey(scopeAndHash.getT1(), operation + ":" + key.value()),
+                                key, scopeAndHash.getT2(), Duration.ofSeconds(settings.ttlSeconds()), action)))
+                .orElseGet(() -> Mono.defer(action)));
+    }
+
+    private <R> Mono<R> deduplicate(ScopedKey key, IdempotencyKey header, String requestHash, Duration ttl,
+                                    Supplier<Mono<R>> action) {
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return cached.matches(requestHash)
+                    ? replay(key, cached)
+                    : Mono.error(new IdempotencyKeyMismatchException(header.value()));
+        }
+
+        return store.claim(key, requestHash, claimTimeout, ttl)
+                .flatMap(claimed -> claimed ? run(key, requestHash, ttl, action) : stored(key, header, requestHash));
+    }
+
+    private <R> Mono<R> run(ScopedKey key, String requestHash, Duration ttl, Supplier<Mono<R>> action) {
+        return Mono.defer(action)
+                .flatMap(result -> complete(key, requestHash, ttl, result).thenReturn(result))
+                .switchIfEmpty(Mono.defer(() -> complete(key, requestHash, ttl, null).then(Mono.empty())))
+                .onErrorResume(error -> !(error instanceof CompletionFailure), error -> store.release(key)
+                        .doOnError(releaseError -> log.warn("Could not release idempotency key {}", key, releaseError))
+                        .onErrorResume(releaseError -> Mono.empty())
+                        .then(Mono.error(error)))
+                .onErrorMap(CompletionFailure.class, Throwable::getCause);
+    }
+
+    /**
+     * Se a gravação do resultado falhar a reserva não é liberada: repetir o handler poderia
+     * duplicar o efeito, então as repetições esperam a reserva expirar.
+     */
+    private Mono<Void> complete(ScopedKey key, String requestHash, Duration ttl, Object result) {
+        IdempotencyRecord record;
+        try {
+            record = result == null
+                    ? IdempotencyRecord.completed(requestHash, null, null, ttl)
+                    : IdempotencyRecord.completed(requestHash, result.getClass().getName(),
+                            objectMapper.writeValueAsString(result), ttl);
+        } catch (JsonProcessingException e) {
+            return Mono.error(new CompletionFailure(e));
+        }
+
+        return store.complete(key, record)
+                .doOnSuccess(v -> completed.put(key, record))
+                .onErrorMap(CompletionFailure::new);
+    }
+
+    private <R> Mono<R> stored(ScopedKey key, IdempotencyKey header, String requestHash) {
+        return store.find(key)
+                .switchIfEmpty(Mono.error(() -> new IdempotencyConflictException(header.value())))
+                .flatMap(record -> {
+                    if (!record.matches(requestHash)) {
+                        return Mono.error(new IdempotencyKeyMismatchException(header.value()));
+                    }
+                    if (!record.completed()) {
+                        return Mono.error(new IdempotencyConflictException(header.value()));
+                    }
+                    completed.put(key, record);
+                    return replay(key, record);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> Mono<R> replay(ScopedKey key, IdempotencyRecord record) {
+        log.debug("Replaying stored result for idempotency key {}", key);
+        if (record.resultType() == null) {
+            return Mono.empty();
+        }
+        try {
+            Class<?> resultType = ClassUtils.forName(record.resultType(), getClass().getClassLoader());
+            return Mono.just((R) objectMapper.readValue(record.result(), resultType));
+        } catch (ClassNotFoundException | JsonProcessingException e) {
+            return Mono.error(new IllegalStateException("Resultado guardado ilegível para a chave " + key, e));
+        }
+    }
+
+    /**
+     * Principal autenticado da requisição; requisições anônimas compartilham o mesmo escopo.
+     */
+    private static Mono<String> scope() {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken))
+                .map(Authentication::getName)
+                .defaultIfEmpty(ANONYMOUS_SCOPE);
+    }
+
+    private Mono<String> requestHash(Object request) {
+        return Mono.fromCallable(() -> HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request))));
+    }
+
+    /**
+     * Cada resultado fica no cache local pelo menor entre {@code idempotency.cache.ttl} e o tempo
+     * que ainda vale no store, para que o cache não responda por uma chave já expirada.
+     */
+    private record CappedExpiry(Duration cacheTtl) implements Expiry<ScopedKey, IdempotencyRecord> {
+
+        @Override
+        public long expireAfterCreate(ScopedKey key, IdempotencyRecord record, long currentTime) {
+            Duration expiresIn = record.expiresIn() == null ? cacheTtl : record.expiresIn();
+            return (expiresIn.compareTo(cacheTtl) < 0 ? expiresIn : cacheTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(ScopedKey key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, record, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ScopedKey key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static final class CompletionFailure extends RuntimeException {
+
+        private CompletionFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
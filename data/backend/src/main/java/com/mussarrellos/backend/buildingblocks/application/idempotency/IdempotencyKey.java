@@ -0,0 +1,32 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+
+/**
+ * Chave de idempotência enviada pelo cliente, carregada no contexto Reactor.
+ */
+public record IdempotencyKey(String value) {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_LENGTH = 255;
+
+    private static final Class<IdempotencyKey> CONTEXT_KEY = IdempotencyKey.class;
+
+    public IdempotencyKey {
+        if (value == null || value.isBlank() || value.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                    HEADER + " deve ter entre 1 e " + MAX_LENGTH + " caracteres");
+        }
+    }
+
+    public static Optional<IdempotencyKey> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public Context putInto(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+}
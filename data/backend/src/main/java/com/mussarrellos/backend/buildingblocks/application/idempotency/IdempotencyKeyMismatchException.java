@@ -0,0 +1,14 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A chave de idempotência já foi usada com um payload diferente.
+ */
+public class IdempotencyKeyMismatchException extends ResponseStatusException {
+
+    public IdempotencyKeyMismatchException(String key) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, "A chave de idempotência " + key + " já foi usada com outro payload");
+    }
+}
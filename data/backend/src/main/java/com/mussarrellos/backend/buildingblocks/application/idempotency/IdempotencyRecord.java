@@ -0,0 +1,27 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Resultado guardado de um comando idempotente. {@code resultType} nulo indica que o comando
+ * terminou sem valor. {@code requestHash} é o hash do payload que reservou a chave, e
+ * {@code expiresIn} quanto tempo o resultado ainda vale para repetições.
+ */
+public record IdempotencyRecord(boolean completed, String requestHash, String resultType, String result,
+                                Duration expiresIn) {
+
+    public static IdempotencyRecord processing(String requestHash, Duration expiresIn) {
+        return new IdempotencyRecord(false, requestHash, null, null, expiresIn);
+    }
+
+    public static IdempotencyRecord completed(String requestHash, String resultType, String result, Duration expiresIn) {
+        return new IdempotencyRecord(true, requestHash, resultType, result, expiresIn);
+    }
+
+    /**
+     * Registros gravados antes do hash existir não têm com o que comparar e são aceitos.
+     */
+    public boolean matches(String otherRequestHash) {
+        return requestHash == null || requestHash.equals(otherRequestHash);
+    }
+}
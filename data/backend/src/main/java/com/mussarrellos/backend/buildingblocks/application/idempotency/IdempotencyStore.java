@@ -0,0 +1,25 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface IdempotencyStore {
+
+    /**
+     * Reserva a chave para uma nova execução do payload {@code requestHash}. Retorna {@code false}
+     * se ela já tem resultado válido ou se outra execução a reservou e a reserva ainda não expirou.
+     */
+    Mono<Boolean> claim(ScopedKey key, String requestHash, Duration claimTimeout, Duration ttl);
+
+    Mono<IdempotencyRecord> find(ScopedKey key);
+
+    Mono<Void> complete(ScopedKey key, IdempotencyRecord record);
+
+    /**
+     * Libera a reserva de uma execução que falhou, permitindo que o cliente tente de novo.
+     */
+    Mono<Void> release(ScopedKey key);
+
+    Mono<Long> deleteExpired();
+}
@@ -0,0 +1,23 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um comando como idempotente por {@code Idempotency-Key}: repetições com a mesma chave
+ * recebem o resultado guardado da primeira execução em vez de executar o handler de novo.
+ * O resultado precisa ser serializável em JSON e não genérico (ex.: {@code UUID}, um DTO).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Idempotent {
+
+    /**
+     * Por quanto tempo o resultado fica disponível para repetições.
+     */
+    long ttlSeconds() default 86_400;
+}
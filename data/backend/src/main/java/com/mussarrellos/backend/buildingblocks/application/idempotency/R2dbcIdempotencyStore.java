@@ -0,0 +1,97 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Chaves de idempotência na tabela {@code idempotency_keys}. Os prazos são calculados com o
+ * relógio do banco, o mesmo para todas as instâncias.
+ */
+@Component
+@RequiredArgsConstructor
+public class R2dbcIdempotencyStore implements IdempotencyStore {
+
+    private static final String STATUS_PROCESSING = "PROCESSING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Boolean> claim(ScopedKey key, String requestHash, Duration claimTimeout, Duration ttl) {
+        return databaseClient.sql(
+                        "INSERT INTO idempotency_keys (scope, key, status, request_hash, locked_until, expires_at, created_at) " +
+                        "VALUES (:scope, :key, :status, :requestHash, now() + :claimSeconds * INTERVAL '1 second', " +
+                        "        now() + :ttlSeconds * INTERVAL '1 second', now()) " +
+                        "ON CONFLICT (scope, key) DO UPDATE SET " +
+                        "    status = EXCLUDED.status, request_hash = EXCLUDED.request_hash, " +
+                        "    result_type = NULL, result = NULL, " +
+                        "    locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at, " +
+                        "    created_at = EXCLUDED.created_at " +
+                        "WHERE idempotency_keys.expires_at < now() " +
+                        "   OR (idempotency_keys.status = :status AND idempotency_keys.locked_until < now())")
+                .bind("scope", key.scope())
+                .bind("key", key.key())
+                .bind("status", STATUS_PROCESSING)
+                .bind("requestHash", requestHash)
+                .bind("claimSeconds", claimTimeout.toSeconds())
+                .bind("ttlSeconds", ttl.toSeconds())
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(ScopedKey key) {
+        return databaseClient.sql(
+                        "SELECT status, request_hash, result_type, result, " +
+                        "       GREATEST(CEIL(EXTRACT(EPOCH FROM expires_at - now())), 0)::BIGINT AS expires_in_seconds " +
+                        "FROM idempotency_keys " +
+                        "WHERE scope = :scope AND key = :key AND expires_at >= now()")
+                .bind("scope", key.scope())
+                .bind("key", key.key())
+                .map((row, metadata) -> {
+                    String requestHash = row.get("request_hash", String.class);
+                    Duration expiresIn = Duration.ofSeconds(row.get("expires_in_seconds", Long.class));
+                    return STATUS_COMPLETED.equals(row.get("status", String.class))
+                            ? IdempotencyRecord.completed(requestHash, row.get("result_type", String.class),
+                                    row.get("result", String.class), expiresIn)
+                            : IdempotencyRecord.processing(requestHash, expiresIn);
+                })
+                .one();
+    }
+
+    @Override
+    public Mono<Void> complete(ScopedKey key, IdempotencyRecord record) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "UPDATE idempotency_keys SET status = :status, result_type = :resultType, result = :result, " +
+                        "locked_until = NULL WHERE scope = :scope AND key = :key")
+                .bind("scope", key.scope())
+                .bind("key", key.key())
+                .bind("status", STATUS_COMPLETED);
+        spec = record.resultType() != null ? spec.bind("resultType", record.resultType()) : spec.bindNull("resultType", String.class);
+        spec = record.result() != null ? spec.bind("result", record.result()) : spec.bindNull("result", String.class);
+        return spec.fetch().rowsUpdated().then();
+    }
+
+    @Override
+    public Mono<Void> release(ScopedKey key) {
+        return databaseClient.sql("DELETE FROM idempotency_keys WHERE scope = :scope AND key = :key AND status = :status")
+                .bind("scope", key.scope())
+                .bind("key", key.key())
+                .bind("status", STATUS_PROCESSING)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Mono<Long> deleteExpired() {
+        return databaseClient.sql("DELETE FROM idempotency_keys WHERE expires_at < now()")
+                .fetch()
+                .rowsUpdated();
+    }
+}
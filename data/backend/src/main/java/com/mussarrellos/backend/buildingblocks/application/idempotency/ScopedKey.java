@@ -0,0 +1,14 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+/**
+ * Chave de idempotência como guardada no {@link IdempotencyStore}: {@code scope} identifica quem
+ * fez a requisição (o principal autenticado), e {@code key} o tipo do comando e a
+ * {@code Idempotency-Key} enviada. Clientes diferentes podem usar o mesmo header sem colidir.
+ */
+public record ScopedKey(String scope, String key) {
+
+    @Override
+    public String toString() {
+        return scope + "/" + key;
+    }
+}
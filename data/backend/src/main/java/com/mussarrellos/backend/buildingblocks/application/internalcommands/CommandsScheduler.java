@@ -0,0 +1,16 @@
+package com.mussarrellos.backend.buildingblocks.application.internalcommands;
+
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface CommandsScheduler {
+
+    /**
+     * Grava o comando para execução assíncrona e retorna o identificador usado na consulta de status.
+     * O comando precisa estar anotado com {@link DeferredCommand}.
+     */
+    Mono<UUID> enqueue(Object command);
+
+    Mono<InternalCommandStatus> findStatus(UUID id);
+}
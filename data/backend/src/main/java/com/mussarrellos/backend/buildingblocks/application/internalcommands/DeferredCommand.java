@@ -0,0 +1,23 @@
+package com.mussarrellos.backend.buildingblocks.application.internalcommands;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Permite que o comando seja executado de forma assíncrona: em vez de passar direto pelo mediator,
+ * ele é gravado em {@code internal_commands} pelo {@link CommandsScheduler} e executado depois
+ * pelo {@link InternalCommandProcessorService}. O comando precisa ser serializável em JSON.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DeferredCommand {
+
+    /**
+     * Quantas vezes o comando é tentado antes de ser marcado como {@code FAILED}.
+     */
+    int maxAttempts() default 5;
+}
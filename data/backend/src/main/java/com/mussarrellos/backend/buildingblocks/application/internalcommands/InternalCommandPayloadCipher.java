@@ -0,0 +1,72 @@
+package com.mussarrellos.backend.buildingblocks.application.internalcommands;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Cifra com AES-GCM o payload gravado em {@code internal_commands.data}: comandos como o
+ * cadastro de cliente carregam a senha em texto puro até o handler aplicar as regras de senha e
+ * gerar o hash, e ela não deve ficar legível no banco enquanto o comando espera na fila.
+ * <p>
+ * A chave ({@code internal-commands.encryption-key}, 128, 192 ou 256 bits em Base64) precisa ser
+ * a mesma em todas as instâncias que consomem a fila.
+ */
+@Component
+public class InternalCommandPayloadCipher {
+
+    private static final String PREFIX = "v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public InternalCommandPayloadCipher(@Value("${internal-commands.encryption-key}") String encodedKey) {
+        byte[] bytes = Base64.getDecoder().decode(encodedKey.trim());
+        if (bytes.length != 16 && bytes.length != 24 && bytes.length != 32) {
+            throw new IllegalArgumentException("internal-commands.encryption-key deve ter 128, 192 ou 256 bits em Base64");
+        }
+        this.key = new SecretKeySpec(bytes, "AES");
+    }
+
+    public String encrypt(String payload) {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] encrypted = cipher.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao cifrar o comando interno", e);
+        }
+    }
+
+    /**
+     * Payloads gravados antes da cifra (sem prefixo) são devolvidos como estão.
+     */
+    public String decrypt(String stored) {
+        if (!stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        byte[] bytes = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, bytes, 0, IV_LENGTH));
+            return new String(cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao decifrar o comando interno", e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.mussarrellos.backend.buildingblocks.application.internalcommands;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mussarrellos.backend.buildingblocks.application.commands.ICommand;
+import com.mussarrellos.backend.buildingblocks.application.commands.ICommandWithoutResult;
+import com.mussarrellos.backend.buildingblocks.application.mediator.Mediator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executa os comandos de {@code internal_commands} em lotes, como o {@code OutboxProcessorService}
+ * faz com as mensagens de outbox. Cada lote é reservado com {@code FOR UPDATE SKIP LOCKED}, então
+ * várias instâncias podem consumir a fila ao mesmo tempo sem executar o mesmo comando duas vezes;
+ * uma reserva abandonada volta para a fila após {@code internal-commands.lock-timeout-seconds}.
+ * <p>
+ * O payload fica cifrado na fila ({@link InternalCommandPayloadCipher}) e, ao terminar (com sucesso
+ * ou falha definitiva), é apagado, para que dados sensíveis do comando, como senhas, não fiquem
+ * gravados além do necessário.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InternalCommandProcessorService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final DatabaseClient databaseClient;
+    private final Mediator mediator;
+    private final ObjectMapper objectMapper;
+    private final InternalCommandPayloadCipher payloadCipher;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${internal-commands.batch-size:50}")
+    private int batchSize;
+
+    @Value("${internal-commands.concurrency:8}")
+    private int concurrency;
+
+    @Value("${internal-commands.lock-timeout-seconds:300}")
+    private long lockTimeoutSeconds;
+
+    @Value("${internal-commands.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Scheduled(fixedDelayString = "${internal-commands.polling-interval-ms:1000}")
+    public void processInternalCommands() {
+        // O próximo ciclo só começa depois que o lote anterior terminou
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        claimBatch()
+                .flatMap(this::process, concurrency)
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        null,
+                        error -> log.error("Error processing internal commands", error));
+    }
+
+    private Flux<ClaimedCommand> claimBatch() {
+        return databaseClient.sql(
+                        "UPDATE internal_commands SET status = 'PROCESSING', attempts = attempts + 1, " +
+                        "locked_until = now() + :lockTimeoutSeconds * INTERVAL '1 second' " +
+                        "WHERE id IN (" +
+                        "    SELECT id FROM internal_commands " +
+                        "    WHERE (status = 'PENDING' AND next_attempt_at <= now()) " +
+                        "       OR (status = 'PROCESSING' AND locked_until < now()) " +
+                        "    ORDER BY enqueued_date " +
+                        "    LIMIT :batchSize " +
+                        "    FOR UPDATE SKIP LOCKED) " +
+                        "RETURNING id, type, data, attempts, max_attempts")
+                .bind("lockTimeoutSeconds", lockTimeoutSeconds)
+                .bind("batchSize", batchSize)
+                .map((row, metadata) -> new ClaimedCommand(
+                        row.get("id", UUID.class),
+                        row.get("type", String.class),
+                        row.get("data", String.class),
+                        row.get("attempts", Integer.class),
+                        row.get("max_attempts", Integer.class)))
+                .all();
+    }
+
+    private Mono<Void> process(ClaimedCommand claimed) {
+        return Mono.defer(() -> dispatch(deserialize(claimed)))
+                .map(this::serializeResult)
+                .defaultIfEmpty("")
+                .flatMap(result -> markProcessed(claimed, result.isEmpty() ? null : result))
+                .onErrorResume(error -> markFailedAttempt(claimed, error));
+    }
+
+    private Object deserialize(ClaimedCommand claimed) {
+        try {
+            Class<?> commandType = ClassUtils.forName(claimed.type(), getClass().getClassLoader());
+            return objectMapper.readValue(payloadCipher.decrypt(claimed.data()), commandType);
+        } catch (Exception e) {
+            throw new IllegalStateException("Comando interno ilegível: " + claimed.type(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Object> dispatch(Object command) {
+        if (command instanceof ICommandWithoutResult withoutResult) {
+            return mediator.send(withoutResult).then(Mono.empty());
+        }
+        if (command instanceof ICommand<?> withResult) {
+            return mediator.send((ICommand<Object>) withResult);
+        }
+        return Mono.error(new IllegalStateException("Tipo não é um comando: " + command.getClass().getName()));
+    }
+
+    private String serializeResult(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (Exception e) {
+            log.warn("Could not serialize result of internal command: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    private Mono<Void> markProcessed(ClaimedCommand claimed, String result) {
+        log.debug("Internal command {} ({}) processed", claimed.id(), claimed.type());
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "UPDATE internal_commands SET status = 'PROCESSED', processed_date = now(), " +
+                        "result = :result, data = NULL, locked_until = NULL, error = NULL WHERE id = :id")
+                .bind("id", claimed.id());
+        spec = result != null ? spec.bind("result", result) : spec.bindNull("result", String.class);
+        return spec.fetch().rowsUpdated().then();
+    }
+
+    private Mono<Void> markFailedAttempt(ClaimedCommand claimed, Throwable error) {
+        String message = truncate(error.getClass().getSimpleName() + ": " + error.getMessage());
+        if (claimed.attempts() >= claimed.maxAttempts()) {
+            log.error("Comando interno {} ({}) falhou após {} tentativas",
+                    claimed.id(), claimed.type(), claimed.attempts(), error);
+            return databaseClient.sql(
+                            "UPDATE internal_commands SET status = 'FAILED', processed_date = now(), " +
+                            "error = :error, data = NULL, locked_until = NULL WHERE id = :id")
+                    .bind("id", claimed.id())
+                    .bind("error", message)
+                    .fetch()
+                    .rowsUpdated()
+                    .then();
+        }
+
+        long delayMs = retryDelayMs * (1L << Math.min(claimed.attempts() - 1, 16));
+        log.warn("Tentativa {} do comando interno {} falhou, nova tentativa em {} ms: {}",
+                claimed.attempts(), claimed.id(), delayMs, message);
+        return databaseClient.sql(
+                        "UPDATE internal_commands SET status = 'PENDING', error = :error, locked_until = NULL, " +
+                        "next_attempt_at = now() + :delayMs * INTERVAL '1 millisecond' WHERE id = :id")
+                .bind("id", claimed.id())
+                .bind("error", message)
+                .bind("delayMs", delayMs)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private record ClaimedCommand(UUID id, String type, String data, int attempts, int maxAttempts) {}
+}
@@ -0,0 +1,26 @@
+package com.mussarrellos.backend.buildingblocks.application.internalcommands;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Situação de um comando enfileirado, exposta pela URL de status devolvida com o 202.
+ */
+public record InternalCommandStatus(UUID id,
+                                    String type,
+                                    Status status,
+                                    int attempts,
+                                    LocalDateTime enqueuedDate,
+                                    LocalDateTime processedDate,
+                                    @JsonRawValue String result,
+                                    String error) {
+
+    public enum Status {
+        PENDING,
+        PROCESSING,
+        PROCESSED,
+        FAILED
+    }
+}
@@ -0,0 +1,85 @@
+package com.mussarrellos.backend.buildingblocks.application.internalcommands;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mussarrellos.backend.buildingblocks.application.idempotency.IdempotencyGuard;
+import com.mussarrellos.backend.buildingblocks.application.idempotency.Idempotent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Implementação de {@link CommandsScheduler} sobre a tabela {@code internal_commands}. O payload é
+ * gravado cifrado e as datas vêm do relógio do banco, o mesmo usado pelos workers.
+ * <p>
+ * Comandos {@link Idempotent} passam pelo {@link IdempotencyGuard} antes de entrar na fila: a
+ * repetição de um 202 devolve o id já enfileirado em vez de enfileirar o comando de novo.
+ */
+@Component
+@RequiredArgsConstructor
+public class R2dbcCommandsScheduler implements CommandsScheduler {
+
+    private static final String DEFERRED_OPERATION = "#deferred";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final InternalCommandPayloadCipher payloadCipher;
+    private final IdempotencyGuard idempotencyGuard;
+
+    @Override
+    public Mono<UUID> enqueue(Object command) {
+        DeferredCommand settings = AnnotationUtils.findAnnotation(command.getClass(), DeferredCommand.class);
+        if (settings == null) {
+            return Mono.error(new IllegalArgumentException(
+                    "Comando não pode ser executado de forma assíncrona: " + command.getClass().getSimpleName()));
+        }
+
+        String data;
+        try {
+            data = payloadCipher.encrypt(objectMapper.writeValueAsString(command));
+        } catch (JsonProcessingException e) {
+            return Mono.error(new IllegalArgumentException("Erro ao serializar o comando", e));
+        }
+
+        return idempotencyGuard.execute(command, command.getClass().getName() + DEFERRED_OPERATION,
+                () -> insert(command, data, settings));
+    }
+
+    private Mono<UUID> insert(Object command, String data, DeferredCommand settings) {
+        UUID id = UUID.randomUUID();
+        return databaseClient.sql(
+                        "INSERT INTO internal_commands (id, type, data, status, attempts, max_attempts, enqueued_date, next_attempt_at) " +
+                        "VALUES (:id, :type, :data, :status, 0, :maxAttempts, now(), now())")
+                .bind("id", id)
+                .bind("type", command.getClass().getName())
+                .bind("data", data)
+                .bind("status", InternalCommandStatus.Status.PENDING.name())
+                .bind("maxAttempts", settings.maxAttempts())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(id);
+    }
+
+    @Override
+    public Mono<InternalCommandStatus> findStatus(UUID id) {
+        return databaseClient.sql(
+                        "SELECT id, type, status, attempts, enqueued_date, processed_date, result, error " +
+                        "FROM internal_commands WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> new InternalCommandStatus(
+                        row.get("id", UUID.class),
+                        row.get("type", String.class),
+                        InternalCommandStatus.Status.valueOf(row.get("status", String.class)),
+                        row.get("attempts", Integer.class),
+                        row.get("enqueued_date", LocalDateTime.class),
+                        row.get("processed_date", LocalDateTime.class),
+                        row.get("result", String.class),
+                        row.get("error", String.class)))
+                .one();
+    }
+}
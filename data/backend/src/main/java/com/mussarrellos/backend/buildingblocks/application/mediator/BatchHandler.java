@@ -0,0 +1,21 @@
+package com.mussarrellos.backend.buildingblocks.application.mediator;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forma em lote, opcional, de um handler de comando ou query. Usada por {@link Mediator#sendAll}
+ * e {@link Mediator#sendAllQueries} para tratar várias mensagens do mesmo tipo de uma só vez
+ * (por exemplo, uma única consulta SQL para o lote inteiro).
+ * <p>
+ * O resultado é indexado pela própria mensagem; mensagens sem entrada no mapa recebem um
+ * {@link BatchResult} vazio. Só chegam aqui as mensagens que passaram individualmente pela
+ * pipeline sem serem resolvidas antes do handler (por exemplo, pelo cache).
+ */
+public interface BatchHandler<M, R> {
+
+    Mono<Map<M, R>> handle(List<M> messages);
+
+}
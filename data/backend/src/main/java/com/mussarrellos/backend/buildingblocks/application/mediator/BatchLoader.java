@@ -0,0 +1,80 @@
+package com.mussarrellos.backend.buildingblocks.application.mediator;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Junta as mensagens de um grupo do lote que chegaram até o handler depois de passar pela
+ * pipeline individualmente, e faz uma única chamada em lote com elas. Mensagens resolvidas
+ * antes do handler (cache, erro de deadline ou idempotência) apenas liberam a sua vaga.
+ * <p>
+ * A chamada em lote dispara quando todas as vagas foram liberadas; cada mensagem recebe a sua
+ * entrada do mapa, vazio quando não há entrada, ou o erro da chamada.
+ */
+final class BatchLoader<M, R> {
+
+    private final boolean[] settled;
+    private final List<M> queued = new ArrayList<>();
+    private final Sinks.Empty<Void> ready = Sinks.empty();
+    private final Sinks.One<Map<M, R>> results = Sinks.one();
+    private int remaining;
+
+    BatchLoader(int slots) {
+        this.settled = new boolean[slots];
+        this.remaining = slots;
+        if (slots == 0) ready.tryEmitEmpty();
+    }
+
+    /**
+     * Delegate do handler para a mensagem da vaga {@code slot}.
+     */
+    Mono<R> load(int slot, M message) {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (!settled[slot]) queued.add(message);
+            }
+            settle(slot);
+            return results.asMono().flatMap(byMessage -> Mono.justOrEmpty(byMessage.get(message)));
+        });
+    }
+
+    /**
+     * Libera a vaga de uma mensagem cuja passagem pela pipeline terminou; idempotente.
+     */
+    void settle(int slot) {
+        boolean last;
+        synchronized (this) {
+            if (settled[slot]) return;
+            settled[slot] = true;
+            last = --remaining == 0;
+        }
+        if (last) ready.tryEmitEmpty();
+    }
+
+    /**
+     * Aguarda todas as vagas e executa a chamada em lote com as mensagens que chegaram ao handler.
+     */
+    Mono<Void> run(Function<List<M>, Mono<Map<M, R>>> batchCall) {
+        return ready.asMono().then(Mono.defer(() -> {
+            List<M> messages;
+            synchronized (this) {
+                messages = List.copyOf(queued);
+            }
+            if (messages.isEmpty()) {
+                results.tryEmitValue(Map.of());
+                return Mono.empty();
+            }
+            return batchCall.apply(messages)
+                    .defaultIfEmpty(Map.of())
+                    .doOnNext(results::tryEmitValue)
+                    .doOnError(results::tryEmitError)
+                    .onErrorResume(error -> Mono.empty())
+                    .then();
+        }));
+    }
+}
@@ -0,0 +1,40 @@
+package com.mussarrellos.backend.buildingblocks.application.mediator;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Resultado de uma mensagem despachada em lote por {@link Mediator#sendAll} ou
+ * {@link Mediator#sendAllQueries}. Há sempre um resultado por mensagem de entrada, na mesma
+ * posição: um valor, vazio (comando sem resultado, query sem resposta) ou o erro daquela mensagem.
+ */
+public record BatchResult<T>(T value, Throwable error) {
+
+    public static <T> BatchResult<T> success(T value) {
+        return new BatchResult<>(value, null);
+    }
+
+    public static <T> BatchResult<T> empty() {
+        return new BatchResult<>(null, null);
+    }
+
+    public static <T> BatchResult<T> failure(Throwable error) {
+        return new BatchResult<>(null, error);
+    }
+
+    public boolean isFailure() {
+        return error != null;
+    }
+
+    public Optional<T> optional() {
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * O mesmo desfecho do despacho individual: valor, vazio ou erro.
+     */
+    public Mono<T> toMono() {
+        return error != null ? Mono.error(error) : Mono.justOrEmpty(value);
+    }
+}
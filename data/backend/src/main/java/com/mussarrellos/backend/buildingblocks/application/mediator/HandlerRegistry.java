@@ -0,0 +1,185 @@
+package com.mussarrellos.backend.buildingblocks.application.mediator;
+
+import com.mussarrellos.backend.buildingblocks.application.commands.CommandHandler;
+import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Índice imutável "tipo da mensagem → handler", montado uma única vez quando os singletons
+ * do contexto terminam de ser instanciados. O despacho passa a ser uma consulta ao índice,
+ * sem reflexão nem varredura de beans por requisição.
+ * <p>
+ * O tipo de mensagem de cada handler vem da tabela gerada em tempo de compilação
+ * ({@link StaticHandlerIndex}); a resolução de genéricos fica apenas para beans fora dela.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ImportRuntimeHints(HandlerRegistry.StaticIndexHints.class)
+public class HandlerRegistry implements SmartInitializingSingleton {
+
+    private final ListableBeanFactory beanFactory;
+
+    private volatile HandlerIndex<CommandHandler<?, ?>> commandHandlers;
+    private volatile HandlerIndex<QueryHandler<?, ?>> queryHandlers;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        StaticHandlerIndex staticIndex = loadStaticIndex();
+        this.commandHandlers = buildIndex(CommandHandler.class, staticIndex.commandHandlers());
+        this.queryHandlers = buildIndex(QueryHandler.class, staticIndex.queryHandlers());
+        log.info("Handler registry built: {} command handlers, {} query handlers",
+                commandHandlers.size(), queryHandlers.size());
+    }
+
+    /**
+     * Retorna o handler registrado para o tipo de comando, considerando também supertipos.
+     */
+    @SuppressWarnings("unchecked")
+    public <C, R> Optional<CommandHandler<C, R>> findCommandHandler(Class<?> commandType) {
+        return (Optional<CommandHandler<C, R>>) (Optional<?>) requireBuilt(commandHandlers).lookup(commandType);
+    }
+
+    /**
+     * Retorna o handler registrado para o tipo de query, considerando também supertipos.
+     */
+    @SuppressWarnings("unchecked")
+    public <Q, R> Optional<QueryHandler<Q, R>> findQueryHandler(Class<?> queryType) {
+        return (Optional<QueryHandler<Q, R>>) (Optional<?>) requireBuilt(queryHandlers).lookup(queryType);
+    }
+
+    private <H> HandlerIndex<H> requireBuilt(HandlerIndex<H> index) {
+        if (index == null) {
+            throw new IllegalStateException("Handler registry has not been built yet");
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <H> HandlerIndex<H> buildIndex(Class<?> handlerType, Map<Class<?>, Class<?>> staticTable) {
+        Map<Class<?>, H> handlers = new HashMap<>();
+        for (Map.Entry<String, ?> entry : beanFactory.getBeansOfType(handlerType).entrySet()) {
+            Object handler = entry.getValue();
+            Class<?> messageType = staticTable.get(ClassUtils.getUserClass(handler));
+            if (messageType == null) messageType = resolveMessageType(handler, handlerType);
+            if (messageType == null) {
+                log.warn("Could not resolve message type for handler bean '{}'", entry.getKey());
+                continue;
+            }
+
+            H previous = handlers.putIfAbsent(messageType, (H) handler);
+            if (previous != null && previous != handler) {
+                log.warn("Multiple handlers found for {}: keeping {}, ignoring {}",
+                        messageType.getSimpleName(),
+                        ClassUtils.getUserClass(previous).getSimpleName(),
+                        ClassUtils.getUserClass(handler).getSimpleName());
+            }
+        }
+        return new HandlerIndex<>(handlers);
+    }
+
+    private StaticHandlerIndex loadStaticIndex() {
+        try {
+            Class<?> indexClass = ClassUtils.forName(StaticHandlerIndex.GENERATED_CLASS_NAME, getClass().getClassLoader());
+            return (StaticHandlerIndex) indexClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            log.debug("No generated handler index found, resolving handler generics at startup");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Could not load generated handler index, resolving handler generics at startup", e);
+        }
+        return EmptyStaticHandlerIndex.INSTANCE;
+    }
+
+    private Class<?> resolveMessageType(Object handler, Class<?> handlerType) {
+        Class<?>[] generics = GenericTypeResolver.resolveTypeArguments(
+                ClassUtils.getUserClass(handler), handlerType);
+        return generics != null && generics.length > 0 ? generics[0] : null;
+    }
+
+    /**
+     * Mapa imutável de tipos exatos, com um {@link ClassValue} que memoriza a resolução
+     * por subtipo (classe concreta → handler registrado para ela ou para um supertipo).
+     */
+    private static final class HandlerIndex<H> {
+
+        private final Map<Class<?>, H> handlers;
+        private final ClassValue<Optional<H>> resolved = new ClassValue<>() {
+            @Override
+            protected Optional<H> computeValue(Class<?> type) {
+                return Optional.ofNullable(resolve(type));
+            }
+        };
+
+        private HandlerIndex(Map<Class<?>, H> handlers) {
+            this.handlers = Map.copyOf(handlers);
+        }
+
+        private Optional<H> lookup(Class<?> messageType) {
+            return resolved.get(messageType);
+        }
+
+        private int size() {
+            return handlers.size();
+        }
+
+        private H resolve(Class<?> messageType) {
+            Deque<Class<?>> pending = new ArrayDeque<>();
+            Set<Class<?>> visited = new HashSet<>();
+            pending.add(messageType);
+
+            while (!pending.isEmpty()) {
+                Class<?> current = pending.poll();
+                if (!visited.add(current)) continue;
+
+                H handler = handlers.get(current);
+                if (handler != null) return handler;
+
+                if (current.getSuperclass() != null) pending.add(current.getSuperclass());
+                pending.addAll(List.of(current.getInterfaces()));
+            }
+            return null;
+        }
+    }
+
+    private enum EmptyStaticHandlerIndex implements StaticHandlerIndex {
+        INSTANCE;
+
+        @Override
+        public Map<Class<?>, Class<?>> commandHandlers() {
+            return Map.of();
+        }
+
+        @Override
+        public Map<Class<?>, Class<?>> queryHandlers() {
+            return Map.of();
+        }
+    }
+
+    static class StaticIndexHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerTypeIfPresent(classLoader, StaticHandlerIndex.GENERATED_CLASS_NAME,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.mussarrellos.backend.buildingblocks.application.mediator;
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommand;
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommandWithoutResult;
 import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface Mediator {
@@ -12,4 +13,16 @@ public interface Mediator {
     Mono<Void> send(ICommandWithoutResult command);
 
     <T> Mono<T> send(IQuery<T> query);
-} 
\ No newline at end of file
+
+    /**
+     * Despacha comandos em lote, agrupando-os por handler. Sai um {@link BatchResult} por
+     * comando, na ordem de entrada; a falha de um comando fica na posição dele e não
+     * interrompe os demais.
+     */
+    <T> Flux<BatchResult<T>> sendAll(Flux<? extends ICommand<T>> commands);
+
+    /**
+     * Equivalente a {@link #sendAll} para queries.
+     */
+    <T> Flux<BatchResult<T>> sendAllQueries(Flux<? extends IQuery<T>> queries);
+}
@@ -0,0 +1,32 @@
+package com.mussarrellos.backend.buildingblocks.application.mediator;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.List;
+
+/**
+ * Lote de mensagens do mesmo tipo entregue a um {@link BatchHandler}; é o que os
+ * comportamentos da pipeline recebem como requisição nesse caso.
+ * <p>
+ * Antes da chamada em lote, cada mensagem passa sozinha pela pipeline (cache, idempotência,
+ * deadline) com o contexto marcado por {@link #markMember}. Comportamentos que limitam ou
+ * compartilham a execução do handler devem ignorar essas passagens: o handler roda uma única
+ * vez, sob o {@code MessageBatch}.
+ */
+public record MessageBatch(Class<?> messageType, List<?> messages) {
+
+    private static final Object MEMBER_KEY = MessageBatch.class.getName() + ".member";
+
+    public MessageBatch {
+        messages = List.copyOf(messages);
+    }
+
+    public static boolean isMember(ContextView context) {
+        return context.hasKey(MEMBER_KEY);
+    }
+
+    public static Context markMember(Context context) {
+        return context.put(MEMBER_KEY, Boolean.TRUE);
+    }
+}
@@ -1,96 +1,172 @@
 package com.mussarrellos.backend.buildingblocks.application.mediator;
 
+import com.mussarrellos.backend.buildingblocks.application.commands.CommandHandler;
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommand;
-import com.mussarrellos.backend.buildingblocks.application.commands.ICommandHandler;
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommandWithoutResult;
-import com.mussarrellos.backend.buildingblocks.application.commands.ICommandWithoutResultHandler;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestPipeline;
 import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
-import com.mussarrellos.backend.buildingblocks.application.queries.IQueryHandler;
+import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationContext;
-import org.springframework.core.GenericTypeResolver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SpringMediator implements Mediator {
 
-    private final ApplicationContext applicationContext;
+    private final HandlerRegistry handlerRegistry;
+    private final RequestPipeline pipeline;
+
+    @Value("${mediator.batch.max-size:256}")
+    private int batchMaxSize;
+
+    @Value("${mediator.batch.concurrency:8}")
+    private int batchConcurrency;
 
     @Override
     public <T> Mono<T> send(ICommand<T> command) {
         log.debug("Mediating command: {}", command.getClass().getSimpleName());
-        return findCommandHandler(command)
-                .flatMap(handler -> handler.handle(command));
+        return dispatchCommand(command, "command");
     }
 
     @Override
     public Mono<Void> send(ICommandWithoutResult command) {
         log.debug("Mediating command without result: {}", command.getClass().getSimpleName());
-        return findCommandWithoutResultHandler(command)
-                .flatMap(handler -> handler.handle(command));
+        return dispatchCommand(command, "command without result");
     }
 
     @Override
     public <T> Mono<T> send(IQuery<T> query) {
         log.debug("Mediating query: {}", query.getClass().getSimpleName());
-        return findQueryHandler(query)
-                .flatMap(handler -> handler.handle(query));
+        return dispatchQuery(query);
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> Mono<ICommandHandler<ICommand<T>, T>> findCommandHandler(ICommand<T> command) {
-        return Flux.fromIterable(applicationContext.getBeansOfType(ICommandHandler.class).values())
-                .filter(handler -> isHandlerForCommand(handler, command))
-                .next()
-                .cast(ICommandHandler.class)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException(
-                        "No handler found for command: " + command.getClass().getSimpleName())))
-                .cast(ICommandHandler.class);
+    @Override
+    public <T> Flux<BatchResult<T>> sendAll(Flux<? extends ICommand<T>> commands) {
+        return dispatchAll(commands, handlerRegistry::findCommandHandler,
+                command -> dispatchCommand(command, "command"));
     }
 
-    @SuppressWarnings("unchecked")
-    private Mono<ICommandWithoutResultHandler<ICommandWithoutResult>> findCommandWithoutResultHandler(ICommandWithoutResult command) {
-        return Flux.fromIterable(applicationContext.getBeansOfType(ICommandWithoutResultHandler.class).values())
-                .filter(handler -> isHandlerForCommandWithoutResult(handler, command))
-                .next()
-                .cast(ICommandWithoutResultHandler.class)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException(
-                        "No handler found for command without result: " + command.getClass().getSimpleName())));
+    @Override
+    public <T> Flux<BatchResult<T>> sendAllQueries(Flux<? extends IQuery<T>> queries) {
+        return dispatchAll(queries, handlerRegistry::findQueryHandler, this::dispatchQuery);
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> Mono<IQueryHandler<IQuery<T>, T>> findQueryHandler(IQuery<T> query) {
-        return Flux.fromIterable(applicationContext.getBeansOfType(IQueryHandler.class).values())
-                .filter(handler -> isHandlerForQuery(handler, query))
-                .next()
-                .cast(IQueryHandler.class)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException(
-                        "No handler found for query: " + query.getClass().getSimpleName())));
+    private <T> Mono<T> dispatchCommand(Object command, String description) {
+        return handlerRegistry.<Object, T>findCommandHandler(command.getClass())
+                .map(handler -> invoke(handler, command))
+                .orElseGet(() -> handlerNotFound(description, command));
+    }
+
+    private <T> Mono<T> dispatchQuery(Object query) {
+        return handlerRegistry.<Object, T>findQueryHandler(query.getClass())
+                .map(handler -> invoke(handler, query))
+                .orElseGet(() -> handlerNotFound("query", query));
+    }
+
+    private <T> Mono<T> invoke(CommandHandler<Object, T> handler, Object command) {
+        return pipeline.execute(command, handler, () -> handler.handle(command));
     }
 
-    private <T> boolean isHandlerForCommand(Object handler, ICommand<T> command) {
-        Class<?>[] generics = GenericTypeResolver.resolveTypeArguments(
-                handler.getClass(), ICommandHandler.class);
-        return generics != null && generics.length > 0 && 
-                generics[0].isAssignableFrom(command.getClass());
+    private <T> Mono<T> invoke(QueryHandler<Object, T> handler, Object query) {
+        return pipeline.execute(query, handler, () -> handler.handle(query));
     }
 
-    private boolean isHandlerForCommandWithoutResult(Object handler, ICommandWithoutResult command) {
-        Class<?>[] generics = GenericTypeResolver.resolveTypeArguments(
-                handler.getClass(), ICommandWithoutResultHandler.class);
-        return generics != null && generics.length > 0 && 
-                generics[0].isAssignableFrom(command.getClass());
+    private <T> Mono<T> handlerNotFound(String description, Object message) {
+        return Mono.error(new IllegalArgumentException(
+                "No handler found for " + description + ": " + message.getClass().getSimpleName()));
+    }
+
+    private <M, T> Flux<BatchResult<T>> dispatchAll(Flux<? extends M> messages,
+                                                    Function<Class<?>, Optional<?>> handlerLookup,
+                                                    Function<Object, Mono<T>> single) {
+        return messages
+                .buffer(batchMaxSize)
+                .concatMap(batch -> dispatchBatch(batch, handlerLookup, single));
+    }
+
+    /**
+     * Agrupa o lote por tipo de mensagem; grupos cujo handler implementa {@link BatchHandler}
+     * são tratados numa única chamada, os demais mensagem a mensagem. Sai exatamente um
+     * {@link BatchResult} por mensagem, na posição dela no lote.
+     */
+    @SuppressWarnings("unchecked")
+    private <M, T> Flux<BatchResult<T>> dispatchBatch(List<M> batch,
+                                                      Function<Class<?>, Optional<?>> handlerLookup,
+                                                      Function<Object, Mono<T>> single) {
+        log.debug("Mediating batch of {} messages", batch.size());
+
+        Map<Class<?>, List<Integer>> positionsByType = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            positionsByType.computeIfAbsent(batch.get(i).getClass(), type -> new ArrayList<>()).add(i);
+        }
+
+        BatchResult<T>[] results = new BatchResult[batch.size()];
+        return Flux.fromIterable(positionsByType.entrySet())
+                .flatMap(group -> {
+                    Object handler = handlerLookup.apply(group.getKey()).orElse(null);
+                    if (handler instanceof BatchHandler<?, ?> batchHandler) {
+                        return dispatchToBatchHandler((BatchHandler<Object, T>) batchHandler,
+                                group.getKey(), group.getValue(), batch, results);
+                    }
+                    return Flux.fromIterable(group.getValue())
+                            .flatMap(position -> settle(single.apply(batch.get(position)), results, List.of(position)),
+                                    batchConcurrency)
+                            .then();
+                }, batchConcurrency)
+                .thenMany(Flux.defer(() -> Flux.fromArray(results)));
+    }
+
+    /**
+     * Cada mensagem distinta do grupo passa individualmente pela pipeline, para que cache,
+     * idempotência e deadline valham como no despacho avulso; as que chegam ao handler são
+     * reunidas pelo {@link BatchLoader} numa única chamada ao {@link BatchHandler}. Mensagens
+     * iguais no mesmo lote compartilham a execução e o resultado.
+     */
+    private <T> Mono<Void> dispatchToBatchHandler(BatchHandler<Object, T> handler,
+                                                  Class<?> messageType,
+                                                  List<Integer> positions,
+                                                  List<?> batch,
+                                                  BatchResult<T>[] results) {
+        Map<Object, List<Integer>> positionsByMessage = new LinkedHashMap<>();
+        for (int position : positions) {
+            positionsByMessage.computeIfAbsent(batch.get(position), message -> new ArrayList<>()).add(position);
+        }
+        List<Object> messages = List.copyOf(positionsByMessage.keySet());
+
+        BatchLoader<Object, T> loader = new BatchLoader<>(messages.size());
+        Mono<Void> batchCall = loader.run(queued -> pipeline.execute(
+                new MessageBatch(messageType, queued), handler, () -> handler.handle(queued)));
+
+        Flux<Void> members = Flux.range(0, messages.size())
+                .flatMap(slot -> {
+                    Object message = messages.get(slot);
+                    Mono<T> execution = pipeline.<T>execute(message, handler, () -> loader.load(slot, message))
+                            .doFinally(signal -> loader.settle(slot))
+                            .contextWrite(MessageBatch::markMember);
+                    return settle(execution, results, positionsByMessage.get(message));
+                }, Math.max(1, messages.size()));
+
+        return Mono.when(members, batchCall);
     }
 
-    private <T> boolean isHandlerForQuery(Object handler, IQuery<T> query) {
-        Class<?>[] generics = GenericTypeResolver.resolveTypeArguments(
-                handler.getClass(), IQueryHandler.class);
-        return generics != null && generics.length > 0 && 
-                generics[0].isAssignableFrom(query.getClass());
+    private static <T> Mono<Void> settle(Mono<T> execution, BatchResult<T>[] results, List<Integer> positions) {
+        return execution
+                .map(BatchResult::<T>success)
+                .defaultIfEmpty(BatchResult.<T>empty())
+                .onErrorResume(error -> Mono.just(BatchResult.<T>failure(error)))
+                .doOnNext(result -> positions.forEach(position -> results[position] = result))
+                .then();
     }
-} 
\ No newline at end of file
+}
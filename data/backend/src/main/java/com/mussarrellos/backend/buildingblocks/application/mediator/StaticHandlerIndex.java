@@ -0,0 +1,18 @@
+package com.mussarrellos.backend.buildingblocks.application.mediator;
+
+import java.util.Map;
+
+/**
+ * Tabela "classe do handler → tipo da mensagem" gerada em tempo de compilação pelo
+ * {@code HandlerIndexProcessor}. Quando presente, o {@link HandlerRegistry} a utiliza no lugar
+ * da resolução de genéricos por reflexão.
+ */
+public interface StaticHandlerIndex {
+
+    String GENERATED_CLASS_NAME = "com.mussarrellos.backend.buildingblocks.application.mediator.GeneratedHandlerIndex";
+
+    Map<Class<?>, Class<?>> commandHandlers();
+
+    Map<Class<?>, Class<?>> queryHandlers();
+
+}
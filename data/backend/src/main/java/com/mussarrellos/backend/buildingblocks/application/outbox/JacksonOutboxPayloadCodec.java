@@ -0,0 +1,58 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+
+/**
+ * Codec baseado em Jackson. JSON, Smile e CBOR usam o mesmo {@link ObjectMapper} da aplicação
+ * com fábricas diferentes, mantendo os módulos e configurações registrados.
+ */
+public final class JacksonOutboxPayloadCodec implements OutboxPayloadCodec {
+
+    public static final String JSON = "json";
+    public static final String SMILE = "smile";
+    public static final String CBOR = "cbor";
+
+    private final String format;
+    private final ObjectMapper mapper;
+
+    private JacksonOutboxPayloadCodec(String format, ObjectMapper mapper) {
+        this.format = format;
+        this.mapper = mapper;
+    }
+
+    public static JacksonOutboxPayloadCodec json(ObjectMapper objectMapper) {
+        return new JacksonOutboxPayloadCodec(JSON, objectMapper);
+    }
+
+    public static JacksonOutboxPayloadCodec smile(ObjectMapper objectMapper) {
+        return withFactory(SMILE, objectMapper, new SmileFactory());
+    }
+
+    public static JacksonOutboxPayloadCodec cbor(ObjectMapper objectMapper) {
+        return withFactory(CBOR, objectMapper, new CBORFactory());
+    }
+
+    private static JacksonOutboxPayloadCodec withFactory(String format, ObjectMapper objectMapper, JsonFactory factory) {
+        return new JacksonOutboxPayloadCodec(format, objectMapper.copyWith(factory));
+    }
+
+    @Override
+    public String format() {
+        return format;
+    }
+
+    @Override
+    public byte[] encode(Object event) throws IOException {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) throws IOException {
+        return mapper.readValue(payload, type);
+    }
+}
@@ -2,10 +2,14 @@ package com.mussarrellos.backend.buildingblocks.application.outbox;
 
 import reactor.core.publisher.Mono;
 
-public interface Outbox {
+import java.util.Collection;
 
-    void add(OutboxMessage message);
+/**
+ * Gravação de mensagens de outbox. Não guarda estado entre chamadas: cada unidade de trabalho
+ * (por exemplo, o {@code save} de um agregado) monta a própria lista e a entrega de uma vez.
+ */
+public interface Outbox {
 
-    Mono<Void> save();
+    Mono<Void> save(Collection<OutboxMessage> messages);
 
-} 
\ No newline at end of file
+}
@@ -2,34 +2,51 @@ package com.mussarrellos.backend.buildingblocks.application.outbox;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+/**
+ * Manutenção das partições diárias de {@code outbox_messages}: cria as partições dos próximos
+ * dias e remove as que saíram do período de retenção. Remover uma partição é uma operação de
+ * metadados, sem o DELETE linha a linha nem o inchaço que ele deixava para o vacuum.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OutboxCleanupService {
-    
+
     private final DatabaseClient databaseClient;
 
+    @Value("${outbox.partitions.days-ahead:7}")
+    private int daysAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitions() {
+        cleanupOutboxMessages();
+    }
+
     @Scheduled(cron = "${outbox.cleanup-cron:0 0 0 * * ?}")
     public void cleanupOutboxMessages() {
-        log.info("Iniciando limpeza automática da tabela outbox_messages");
-        databaseClient.sql("SELECT cleanup_processed_outbox_messages()")
+        log.info("Iniciando manutenção das partições da tabela outbox_messages");
+        databaseClient.sql("SELECT maintain_outbox_partitions(:daysAhead)")
+            .bind("daysAhead", daysAhead)
             .map((row, metadata) -> row.get(0, Integer.class))
             .one()
             .doOnSuccess(count -> {
                 if (count != null && count > 0) {
-                    log.info("Limpeza da outbox concluída: {} mensagens removidas", count);
+                    log.info("Manutenção da outbox concluída: {} partições removidas", count);
                 } else {
-                    log.info("Limpeza da outbox concluída: nenhuma mensagem removida");
+                    log.info("Manutenção da outbox concluída: nenhuma partição removida");
                 }
             })
-            .doOnError(error -> log.error("Erro ao executar limpeza da outbox", error))
+            .doOnError(error -> log.error("Erro ao executar manutenção da outbox", error))
             .onErrorResume(error -> Mono.empty())
             .subscribe();
     }
 
-} 
\ No newline at end of file
+}
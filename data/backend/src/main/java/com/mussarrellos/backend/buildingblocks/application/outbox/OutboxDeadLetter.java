@@ -0,0 +1,16 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mensagem do outbox que esgotou as tentativas de publicação.
+ */
+public record OutboxDeadLetter(UUID id,
+                               UUID aggregateId,
+                               LocalDateTime occurredOn,
+                               String type,
+                               int attempts,
+                               String lastError,
+                               LocalDateTime deadLetteredDate) {
+}
@@ -0,0 +1,19 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface OutboxDeadLetters {
+
+    /**
+     * Lista as mensagens mortas mais recentes primeiro.
+     */
+    Flux<OutboxDeadLetter> findRecent(int limit);
+
+    /**
+     * Devolve a mensagem à outbox com as tentativas zeradas; {@code false} se ela não existir.
+     */
+    Mono<Boolean> requeue(UUID id);
+}
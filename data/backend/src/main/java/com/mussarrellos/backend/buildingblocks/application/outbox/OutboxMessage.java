@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
 @Getter
@@ -11,23 +12,38 @@ import java.util.UUID;
 public class OutboxMessage {
 
     private UUID id;
+    private UUID aggregateId;
     private LocalDateTime occurredOn;
     private String type;
-    private String data;
+    private String payloadFormat;
+    private boolean compressed;
+    private byte[] payload;
     private LocalDateTime processedDate;
 
-    public OutboxMessage(UUID id, LocalDateTime occurredOn, String type, String data) {
+    public OutboxMessage(UUID id, UUID aggregateId, LocalDateTime occurredOn, String type,
+                         String payloadFormat, boolean compressed, byte[] payload) {
         this.id = id;
+        this.aggregateId = aggregateId;
         this.occurredOn = occurredOn;
         this.type = type;
-        this.data = data;
+        this.payloadFormat = payloadFormat;
+        this.compressed = compressed;
+        this.payload = payload;
+    }
+
+    /**
+     * JSON sem compressão vai para a coluna {@code data} ({@code jsonb}); os demais formatos
+     * para {@code data_binary} ({@code bytea}).
+     */
+    public boolean isStoredAsJson() {
+        return JacksonOutboxPayloadCodec.JSON.equals(payloadFormat) && !compressed;
     }
 
     public void markAsProcessed() {
-        this.processedDate = LocalDateTime.now();
+        this.processedDate = LocalDateTime.now(ZoneOffset.UTC);
     }
 
     public boolean isProcessed() {
         return processedDate != null;
     }
-} 
\ No newline at end of file
+}
@@ -1,31 +1,45 @@
 package com.mussarrellos.backend.buildingblocks.application.outbox;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxPayloadSerializer.EncodedPayload;
 import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
 @Component
 @RequiredArgsConstructor
 public class OutboxMessageFactory {
 
-    private final ObjectMapper objectMapper;
+    private final OutboxPayloadSerializer payloadSerializer;
 
     public OutboxMessage createFrom(IDomainEvent domainEvent) {
+        return createFrom(null, domainEvent);
+    }
+
+    /**
+     * Cria a mensagem associada ao agregado de origem; o relay publica em ordem as mensagens
+     * de um mesmo agregado.
+     */
+    public OutboxMessage createFrom(UUID aggregateId, IDomainEvent domainEvent) {
         try {
             String eventTypeName = domainEvent.getClass().getName();
-            String data = objectMapper.writeValueAsString(domainEvent);
-            
+            EncodedPayload payload = payloadSerializer.encode(domainEvent);
+
             return new OutboxMessage(
                     domainEvent.getId(),
-                    domainEvent.getOccurredOn(),
+                    aggregateId,
+                    LocalDateTime.ofInstant(domainEvent.getOccurredOn(), ZoneOffset.UTC),
                     eventTypeName,
-                    data
+                    payload.format(),
+                    payload.compressed(),
+                    payload.bytes()
             );
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             throw new RuntimeException("Erro ao serializar o evento de domínio", e);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import com.mussarrellos.backend.buildingblocks.infra.postgres.PostgresNotifications;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Mantém uma conexão dedicada em {@code LISTEN outbox_messages} e acorda o relay assim que
+ * o trigger de INSERT notifica. O polling agendado continua apenas como rede de segurança
+ * para notificações perdidas (reconexões, falhas do relay).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.notifications.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxNotificationListener {
+
+    static final String CHANNEL = "outbox_messages";
+
+    private final ConnectionFactory connectionFactory;
+    private final OutboxProcessorService processorService;
+
+    @Value("${outbox.notifications.reconnect-delay-ms:1000}")
+    private long reconnectDelayMs;
+
+    private volatile Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = listen()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(reconnectDelayMs))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(retrySignal ->
+                                log.warn("Conexão LISTEN do outbox perdida, reconectando: {}",
+                                        retrySignal.failure().getMessage())))
+                .subscribe(
+                        notification -> processorService.requestPoll(),
+                        error -> log.error("Listener de notificações do outbox encerrado", error));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) current.dispose();
+    }
+
+    private Flux<Notification> listen() {
+        return PostgresNotifications.listen(connectionFactory, CHANNEL, () -> {
+            log.info("Outbox escutando notificações no canal {}", CHANNEL);
+            // Mensagens gravadas enquanto não havia LISTEN ativo
+            processorService.requestPoll();
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import java.io.IOException;
+
+/**
+ * Formato de serialização do payload das mensagens do outbox. O nome do formato é gravado
+ * junto com a mensagem, para que o relay saiba decodificá-la mesmo após uma troca de formato.
+ */
+public interface OutboxPayloadCodec {
+
+    String format();
+
+    byte[] encode(Object event) throws IOException;
+
+    <T> T decode(byte[] payload, Class<T> type) throws IOException;
+}
@@ -0,0 +1,82 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializa os eventos gravados no outbox com o codec configurado em {@code outbox.payload.format}
+ * e comprime com gzip os payloads maiores que {@code outbox.payload.compression-threshold-bytes}
+ * (0 desliga a compressão). Na leitura, o formato e a compressão vêm da própria mensagem.
+ */
+@Slf4j
+@Component
+public class OutboxPayloadSerializer {
+
+    private final Map<String, OutboxPayloadCodec> codecs;
+    private final OutboxPayloadCodec writeCodec;
+    private final int compressionThreshold;
+
+    public OutboxPayloadSerializer(ObjectMapper objectMapper,
+                                   @Value("${outbox.payload.format:json}") String format,
+                                   @Value("${outbox.payload.compression-threshold-bytes:0}") int compressionThreshold) {
+        this.codecs = Map.of(
+                JacksonOutboxPayloadCodec.JSON, JacksonOutboxPayloadCodec.json(objectMapper),
+                JacksonOutboxPayloadCodec.SMILE, JacksonOutboxPayloadCodec.smile(objectMapper),
+                JacksonOutboxPayloadCodec.CBOR, JacksonOutboxPayloadCodec.cbor(objectMapper));
+        this.writeCodec = codec(format);
+        this.compressionThreshold = compressionThreshold;
+        log.info("Outbox payloads gravados em {}{}", format,
+                compressionThreshold > 0 ? " com gzip acima de " + compressionThreshold + " bytes" : "");
+    }
+
+    public EncodedPayload encode(Object event) throws IOException {
+        byte[] payload = writeCodec.encode(event);
+        if (compressionThreshold > 0 && payload.length > compressionThreshold) {
+            return new EncodedPayload(writeCodec.format(), true, gzip(payload));
+        }
+        return new EncodedPayload(writeCodec.format(), false, payload);
+    }
+
+    public <T> T decode(OutboxMessage message, Class<T> type) throws IOException {
+        byte[] payload = message.isCompressed() ? gunzip(message.getPayload()) : message.getPayload();
+        return codec(message.getPayloadFormat()).decode(payload, type);
+    }
+
+    private OutboxPayloadCodec codec(String format) {
+        OutboxPayloadCodec codec = codecs.get(format);
+        if (codec == null) {
+            throw new IllegalArgumentException("Formato de payload do outbox desconhecido: " + format);
+        }
+        return codec;
+    }
+
+    private static byte[] gzip(byte[] payload) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] payload) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    public record EncodedPayload(String format, boolean compressed, byte[] bytes) {
+    }
+}
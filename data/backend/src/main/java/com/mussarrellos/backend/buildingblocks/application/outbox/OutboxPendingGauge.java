@@ -0,0 +1,44 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backlog do outbox exposto como gauge {@code outbox.pending}. O valor é amostrado em
+ * intervalo próprio, fora do laço de processamento, e decrementado localmente a cada
+ * confirmação para se manter próximo do real entre uma amostra e outra.
+ */
+@Slf4j
+@Component
+public class OutboxPendingGauge {
+
+    private final DatabaseClient databaseClient;
+    private final AtomicLong pending = new AtomicLong();
+
+    public OutboxPendingGauge(DatabaseClient databaseClient, MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Mensagens do outbox ainda não processadas (amostrado)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.pending-sample-interval-ms:15000}")
+    public void sample() {
+        databaseClient.sql("SELECT COUNT(*) FROM outbox_messages WHERE processed_date IS NULL")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .subscribe(
+                        count -> pending.set(count != null ? count : 0),
+                        error -> log.warn("Falha ao amostrar o backlog do outbox: {}", error.getMessage()));
+    }
+
+    void acknowledged(long count) {
+        pending.accumulateAndGet(count, (current, acked) -> Math.max(0, current - acked));
+    }
+}
@@ -0,0 +1,118 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ajusta o tamanho do lote e o intervalo entre polls do relay conforme o resultado de cada poll:
+ * <ul>
+ *     <li>lote cheio e dentro da latência alvo: aumenta o lote e o próximo poll é imediato;</li>
+ *     <li>lote acima da latência alvo: reduz o lote pela metade;</li>
+ *     <li>lote vazio: dobra o intervalo até {@code outbox.polling-interval-ms};</li>
+ *     <li>lote parcial: volta ao intervalo mínimo, mantendo o lote.</li>
+ * </ul>
+ * A latência observada é uma média móvel da duração dos lotes (reserva, publicação e confirmação).
+ */
+@Slf4j
+@Component
+public class OutboxPollingController {
+
+    private static final double GROWTH_FACTOR = 1.5;
+    private static final double SHRINK_FACTOR = 0.5;
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final long targetLatencyMs;
+    private final Timer batchDuration;
+
+    private volatile int batchSize;
+    private volatile long intervalMs;
+    private volatile double latencyMs;
+
+    public OutboxPollingController(MeterRegistry meterRegistry,
+                                   @Value("${outbox.batch-size:100}") int initialBatchSize,
+                                   @Value("${outbox.min-batch-size:10}") int minBatchSize,
+                                   @Value("${outbox.max-batch-size:1000}") int maxBatchSize,
+                                   @Value("${outbox.min-polling-interval-ms:100}") long minIntervalMs,
+                                   @Value("${outbox.polling-interval-ms:30000}") long maxIntervalMs,
+                                   @Value("${outbox.target-batch-latency-ms:500}") long targetLatencyMs) {
+        this.minBatchSize = Math.max(1, minBatchSize);
+        this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+        this.minIntervalMs = Math.max(0, minIntervalMs);
+        this.maxIntervalMs = Math.max(this.minIntervalMs, maxIntervalMs);
+        this.targetLatencyMs = targetLatencyMs;
+        this.batchSize = (int) clamp(initialBatchSize, this.minBatchSize, this.maxBatchSize);
+        this.intervalMs = this.minIntervalMs;
+
+        Gauge.builder("outbox.relay.batch-size", this, OutboxPollingController::batchSize)
+                .description("Tamanho de lote escolhido pelo controlador do relay")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.poll-interval", this, controller -> controller.intervalMs)
+                .description("Intervalo até o próximo poll do relay")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.batch-latency", this, controller -> controller.latencyMs)
+                .description("Média móvel da duração dos lotes do relay")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("outbox.relay.batch.duration")
+                .description("Duração de cada lote do relay")
+                .register(meterRegistry);
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Registra o resultado de um poll e devolve o intervalo até o próximo;
+     * {@link Duration#ZERO} quando o relay deve drenar de novo imediatamente.
+     */
+    public synchronized Duration onBatch(int requested, int claimed, long elapsedNanos) {
+        if (claimed == 0) {
+            intervalMs = clamp(Math.max(1, intervalMs) * 2, minIntervalMs, maxIntervalMs);
+            return Duration.ofMillis(intervalMs);
+        }
+
+        batchDuration.record(Duration.ofNanos(elapsedNanos));
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+        latencyMs = latencyMs == 0 ? elapsedMs : latencyMs + LATENCY_SMOOTHING * (elapsedMs - latencyMs);
+
+        int previous = batchSize;
+        if (latencyMs > targetLatencyMs) {
+            batchSize = (int) clamp((long) (batchSize * SHRINK_FACTOR), minBatchSize, maxBatchSize);
+        } else if (claimed >= requested) {
+            batchSize = (int) clamp((long) Math.ceil(batchSize * GROWTH_FACTOR), minBatchSize, maxBatchSize);
+        }
+        if (batchSize != previous) {
+            log.debug("Outbox batch size {} -> {} (latência média {} ms)", previous, batchSize, Math.round(latencyMs));
+        }
+
+        if (claimed >= requested) {
+            intervalMs = 0;
+            return Duration.ZERO;
+        }
+        intervalMs = minIntervalMs;
+        return Duration.ofMillis(intervalMs);
+    }
+
+    /**
+     * Uma notificação indica mensagens novas: o backoff de tabela vazia recomeça do mínimo.
+     */
+    public void onWakeup() {
+        intervalMs = minIntervalMs;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
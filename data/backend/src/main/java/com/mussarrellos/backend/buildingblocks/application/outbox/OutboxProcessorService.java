@@ -1,68 +1,139 @@
 package com.mussarrellos.backend.buildingblocks.application.outbox;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.blocking.BlockingSchedulers;
 import com.mussarrellos.backend.buildingblocks.domain.events.DomainEventPublisher;
 import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
+import com.mussarrellos.backend.buildingblocks.infra.jfr.OutboxPollEvent;
+import com.mussarrellos.backend.buildingblocks.infra.jfr.OutboxPublishEvent;
 
-import lombok.RequiredArgsConstructor;
+import io.r2dbc.postgresql.codec.Json;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OutboxProcessorService {
 
     private final DatabaseClient databaseClient;
     private final DomainEventPublisher eventPublisher;
-    private final ObjectMapper objectMapper;
+    private final OutboxPayloadSerializer payloadSerializer;
+    private final OutboxPendingGauge pendingGauge;
+    private final OutboxPollingController pollingController;
 
-    @Value("${outbox.max-retry-attempts:3}")
-    private int maxRetryAttempts;
+    private final int maxRetryAttempts;
+    private final long retryDelayMs;
+    private final long maxRetryDelayMs;
+    private final int lanes;
+    private final long leaseSeconds;
+    private final String workerId;
 
-    @Value("${outbox.retry-delay-ms:1000}")
-    private long retryDelayMs;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+    private final AtomicReference<Disposable> nextPoll = new AtomicReference<>();
 
-    @Value("${outbox.batch-size:100}")
-    private int batchSize;
+    public OutboxProcessorService(DatabaseClient databaseClient,
+                                  DomainEventPublisher eventPublisher,
+                                  OutboxPayloadSerializer payloadSerializer,
+                                  OutboxPendingGauge pendingGauge,
+                                  OutboxPollingController pollingController,
+                                  @Value("${outbox.max-retry-attempts:10}") int maxRetryAttempts,
+                                  @Value("${outbox.retry-delay-ms:1000}") long retryDelayMs,
+                                  @Value("${outbox.max-retry-delay-ms:300000}") long maxRetryDelayMs,
+                                  @Value("${outbox.lanes:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int lanes,
+                                  @Value("${outbox.lease-seconds:60}") long leaseSeconds,
+                                  @Value("${outbox.worker-id:#{null}}") String workerId) {
+        this.databaseClient = databaseClient;
+        this.eventPublisher = eventPublisher;
+        this.payloadSerializer = payloadSerializer;
+        this.pendingGauge = pendingGauge;
+        this.pollingController = pollingController;
+        this.maxRetryAttempts = maxRetryAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.maxRetryDelayMs = maxRetryDelayMs;
+        this.lanes = lanes;
+        this.leaseSeconds = leaseSeconds;
+        this.workerId = workerId != null ? workerId : "outbox-" + UUID.randomUUID();
+    }
+
+    @PostConstruct
+    void logStarted() {
+        log.info("Outbox relay {} iniciado com {} faixa(s) de publicação", workerId, lanes);
+    }
 
-    @Scheduled(fixedDelayString = "${outbox.polling-interval-ms:5000}")
+    /**
+     * Cada instância reserva o próprio lote com {@code FOR UPDATE SKIP LOCKED} e uma concessão
+     * ({@code claimed_by}/{@code claimed_until}); instâncias diferentes nunca recebem a mesma
+     * mensagem. Se um nó cair, a concessão expira e outro nó reassume as mensagens.
+     * <p>
+     * O disparo normal vem do {@link OutboxNotificationListener} e o ritmo entre polls do
+     * {@link OutboxPollingController}; o agendamento fixo é só a rede de segurança.
+     */
+    @Scheduled(fixedDelayString = "${outbox.polling-interval-ms:30000}")
 //    @CircuitBreaker(name = "outboxProcessor", fallbackMethod = "fallbackProcessOutboxMessages")
     public void processOutboxMessages() {
-        log.debug("Starting to process outbox messages");
+        poll();
+    }
 
-        databaseClient.sql(
-                        "SELECT id, occurred_on, type, data, " +
-                                "(SELECT COUNT(*) FROM outbox_messages WHERE processed_date IS NULL) as pending_count " +
-                                "FROM outbox_messages " +
-                                "WHERE processed_date IS NULL " +
-                                "ORDER BY occurred_on ASC " +
-                                "LIMIT :batchSize")
-                .bind("batchSize", batchSize)
-                .map((row, metadata) -> {
-                    UUID id = row.get("id", UUID.class);
-                    LocalDateTime occurredOn = row.get("occurred_on", LocalDateTime.class);
-                    String type = row.get("type", String.class);
-                    String data = row.get("data", String.class);
-                    Long pendingCount = row.get("pending_count", Long.class);
-
-                    if (pendingCount != null && pendingCount > 0) {
-                        log.debug("Found {} pending outbox messages", pendingCount);
-                    }
+    /**
+     * Pede uma nova drenagem por causa de mensagens novas. Se já houver uma em andamento, ela
+     * roda de novo ao terminar, de modo que nenhuma notificação recebida durante o poll fica
+     * sem resposta.
+     */
+    public void requestPoll() {
+        pollingController.onWakeup();
+        poll();
+    }
+
+    private void poll() {
+        pollRequested.set(true);
+        drain();
+    }
+
+    private void scheduleNext(Duration delay) {
+        Disposable previous = nextPoll.getAndSet(Mono.delay(delay).subscribe(tick -> poll()));
+        if (previous != null) previous.dispose();
+    }
+
+    private void drain() {
+        if (!polling.compareAndSet(false, true)) {
+            log.debug("Outbox poll already running, rescheduling after it finishes");
+            return;
+        }
+        pollRequested.set(false);
+        log.debug("Starting to process outbox messages");
 
-                    return new OutboxMessage(id, occurredOn, type, data);
+        int requested = pollingController.batchSize();
+        long startedAt = System.nanoTime();
+        pollBatch(requested)
+                .doOnNext(claimed -> {
+                    Duration next = pollingController.onBatch(requested, claimed, System.nanoTime() - startedAt);
+                    // Lote cheio: provavelmente há mais mensagens, drena de novo sem esperar
+                    if (next.isZero()) pollRequested.set(true);
+                    else scheduleNext(next);
+                })
+                .doFinally(signal -> {
+                    polling.set(false);
+                    if (pollRequested.get()) drain();
                 })
-                .all()
-                .flatMap(this::processMessageWithRetry)
                 .subscribe(
                         null,
                         error -> log.error("Error processing outbox messages", error),
@@ -70,56 +141,296 @@ public class OutboxProcessorService {
                 );
     }
 
+    Mono<Integer> pollBatch(int batchSize) {
+        OutboxPollEvent pollEvent = new OutboxPollEvent();
+        pollEvent.begin();
+
+        int laneCount = Math.max(1, lanes);
+        // Antes da reserva: a concessão dada pelo banco vence depois desse instante, nunca antes
+        long claimedAtNanos = System.nanoTime();
+        return claimBatch(batchSize)
+                .doOnNext(message -> recordPolled(pollEvent, message))
+                .groupBy(message -> laneOf(message, laneCount))
+                .flatMap(lane -> lane.collectList()
+                        .flatMap(messages -> publishLane(messages, new LaneLease(messages, claimedAtNanos))), laneCount)
+                .then(Mono.fromSupplier(() -> pollEvent.batchSize))
+                .doFinally(signal -> pollEvent.commit());
+    }
+
+    /**
+     * Confirma de uma vez todas as mensagens publicadas da faixa. Só confirma as que ainda
+     * estão sob a concessão deste worker.
+     */
+    private Mono<Void> acknowledge(List<UUID> publishedIds) {
+        if (publishedIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(
+                        "UPDATE outbox_messages SET processed_date = :processedDate, " +
+                                "claimed_by = NULL, claimed_until = NULL " +
+                                "WHERE id = ANY(:ids) AND claimed_by = :workerId")
+                .bind("processedDate", LocalDateTime.now(ZoneOffset.UTC))
+                .bind("ids", publishedIds.toArray(UUID[]::new))
+                .bind("workerId", workerId)
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(pendingGauge::acknowledged)
+                .then();
+    }
+
+    /**
+     * Mensagens de um mesmo agregado caem sempre na mesma faixa; sem agregado, a distribuição
+     * é pelo id da mensagem.
+     */
+    private static int laneOf(OutboxMessage message, int laneCount) {
+        UUID key = message.getAggregateId() != null ? message.getAggregateId() : message.getId();
+        return Math.floorMod(key.hashCode(), laneCount);
+    }
+
+    /**
+     * Publica a faixa em série, na ordem de ocorrência, e confirma as publicadas ao terminar.
+     * Antes de cada mensagem a concessão da faixa é renovada se já passou da metade; uma
+     * mensagem cuja concessão se perdeu (outro worker pode tê-la reservado) não é publicada.
+     * Se uma mensagem falha, as seguintes do mesmo agregado não são publicadas e têm a
+     * concessão liberada: voltam a ser reservadas depois dela.
+     */
+    private Mono<Void> publishLane(List<OutboxMessage> lane, LaneLease lease) {
+        Set<UUID> blockedAggregates = new HashSet<>();
+        List<UUID> skipped = new ArrayList<>();
+        return Flux.fromIterable(lane)
+                .concatMap(message -> {
+                    UUID aggregateId = message.getAggregateId();
+                    if (aggregateId != null && blockedAggregates.contains(aggregateId)) {
+                        lease.release(message.getId());
+                        skipped.add(message.getId());
+                        return Mono.empty();
+                    }
+                    return lease.renewIfNeeded()
+                            .then(Mono.defer(() -> {
+                                if (!lease.holds(message.getId())) {
+                                    if (aggregateId != null) blockedAggregates.add(aggregateId);
+                                    log.warn("Concessão da mensagem {} expirou antes da publicação", message.getId());
+                                    return Mono.<UUID>empty();
+                                }
+                                return processMessage(message)
+                                        .onErrorResume(error -> {
+                                            if (aggregateId != null) blockedAggregates.add(aggregateId);
+                                            lease.release(message.getId());
+                                            return recordFailure(message, error).then(Mono.empty());
+                                        });
+                            }));
+                })
+                .collectList()
+                .flatMap(published -> acknowledge(published).then(Mono.defer(() -> release(skipped))));
+    }
+
+    /**
+     * Devolve as mensagens não publicadas sem registrar tentativa; a reserva seguinte as pega
+     * de novo na ordem do agregado.
+     */
+    private Mono<Void> release(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(
+                        "UPDATE outbox_messages SET claimed_by = NULL, claimed_until = NULL " +
+                                "WHERE id = ANY(:ids) AND claimed_by = :workerId")
+                .bind("ids", ids.toArray(UUID[]::new))
+                .bind("workerId", workerId)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Registra a falha e agenda a próxima tentativa com backoff exponencial, liberando a
+     * concessão. Esgotadas as tentativas, a mensagem vai para {@code outbox_dead_letters}.
+     */
+    private Mono<Void> recordFailure(OutboxMessage message, Throwable error) {
+        String lastError = error.getClass().getName() + ": " + error.getMessage();
+        return databaseClient.sql(
+                        "UPDATE outbox_messages SET attempts = attempts + 1, last_error = :lastError, " +
+                                "next_attempt_at = now() + LEAST(:retryDelayMs * power(2, attempts), :maxRetryDelayMs) " +
+                                "    * INTERVAL '1 millisecond', " +
+                                "claimed_by = NULL, claimed_until = NULL " +
+                                "WHERE id = :id AND claimed_by = :workerId " +
+                                "RETURNING attempts")
+                .bind("lastError", lastError)
+                .bind("retryDelayMs", retryDelayMs)
+                .bind("maxRetryDelayMs", maxRetryDelayMs)
+                .bind("id", message.getId())
+                .bind("workerId", workerId)
+                .map((row, metadata) -> row.get("attempts", Integer.class))
+                .one()
+                .flatMap(attempts -> {
+                    if (attempts < maxRetryAttempts) {
+                        log.warn("Falha {} de {} ao publicar mensagem {}: {}",
+                                attempts, maxRetryAttempts, message.getId(), lastError);
+                        return Mono.empty();
+                    }
+                    log.error("Mensagem {} movida para outbox_dead_letters após {} tentativas",
+                            message.getId(), attempts, error);
+                    return moveToDeadLetters(message.getId());
+                })
+                .onErrorResume(e -> {
+                    // A concessão expira e a mensagem volta a ser reservada
+                    log.error("Erro ao registrar falha da mensagem {}", message.getId(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> moveToDeadLetters(UUID id) {
+        return databaseClient.sql(
+                        "WITH dead AS (" +
+                                "    DELETE FROM outbox_messages WHERE id = :id AND claimed_by IS NULL " +
+                                "    RETURNING id, aggregate_id, occurred_on, type, payload_format, compressed, " +
+                                "              data, data_binary, attempts, last_error) " +
+                                "INSERT INTO outbox_dead_letters (id, aggregate_id, occurred_on, type, payload_format, " +
+                                "    compressed, data, data_binary, attempts, last_error) " +
+                                "SELECT id, aggregate_id, occurred_on, type, payload_format, compressed, " +
+                                "       data, data_binary, attempts, last_error FROM dead")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(pendingGauge::acknowledged)
+                .then();
+    }
+
+    /**
+     * Reserva as mensagens prontas mais antigas. Uma mensagem de agregado só entra no lote se
+     * todas as pendentes anteriores do mesmo agregado também entram: se outro worker segura uma
+     * delas (SKIP LOCKED ou concessão vigente) ou ela aguarda nova tentativa, o agregado espera.
+     */
+    private Flux<OutboxMessage> claimBatch(int batchSize) {
+        return databaseClient.sql(
+                        "WITH candidates AS (" +
+                                "    SELECT id, aggregate_id, occurred_on FROM outbox_messages " +
+                                "    WHERE processed_date IS NULL " +
+                                "      AND (claimed_until IS NULL OR claimed_until < now()) " +
+                                "      AND (next_attempt_at IS NULL OR next_attempt_at <= now()) " +
+                                "    ORDER BY occurred_on ASC " +
+                                "    LIMIT :batchSize " +
+                                "    FOR UPDATE SKIP LOCKED) " +
+                                "UPDATE outbox_messages " +
+                                "SET claimed_by = :workerId, " +
+                                "    claimed_until = now() + :leaseSeconds * INTERVAL '1 second' " +
+                                "WHERE id IN (" +
+                                "    SELECT c.id FROM candidates c " +
+                                "    WHERE c.aggregate_id IS NULL OR NOT EXISTS (" +
+                                "        SELECT 1 FROM outbox_messages held " +
+                                "        WHERE held.aggregate_id = c.aggregate_id " +
+                                "          AND held.processed_date IS NULL " +
+                                "          AND held.occurred_on < c.occurred_on " +
+                                "          AND held.id NOT IN (SELECT id FROM candidates))) " +
+                                "RETURNING id, aggregate_id, occurred_on, type, payload_format, compressed, data, data_binary")
+                .bind("workerId", workerId)
+                .bind("leaseSeconds", leaseSeconds)
+                .bind("batchSize", batchSize)
+                .map((row, metadata) -> {
+                    Json json = row.get("data", Json.class);
+                    return new OutboxMessage(
+                            row.get("id", UUID.class),
+                            row.get("aggregate_id", UUID.class),
+                            row.get("occurred_on", LocalDateTime.class),
+                            row.get("type", String.class),
+                            row.get("payload_format", String.class),
+                            Boolean.TRUE.equals(row.get("compressed", Boolean.class)),
+                            json != null ? json.asArray() : row.get("data_binary", byte[].class));
+                })
+                .all()
+                // RETURNING não garante ordem
+                .sort(Comparator.comparing(OutboxMessage::getOccurredOn));
+    }
+
+    private static void recordPolled(OutboxPollEvent pollEvent, OutboxMessage message) {
+        // As mensagens vêm em ordem de ocorrência: a primeira é a mais antiga do lote
+        if (pollEvent.batchSize++ == 0 && message.getOccurredOn() != null) {
+            pollEvent.lag = Duration.between(message.getOccurredOn(), LocalDateTime.now(ZoneOffset.UTC)).toMillis();
+        }
+    }
+
     public void fallbackProcessOutboxMessages(Exception e) {
         log.warn("Circuit breaker ativado para processamento de outbox. Erro: {}", e.getMessage());
         log.debug("Detalhes do erro do circuit breaker:", e);
     }
 
-    private Mono<Void> processMessageWithRetry(OutboxMessage message) {
-        return processMessage(message)
-                .retryWhen(Retry.backoff(maxRetryAttempts, Duration.ofMillis(retryDelayMs))
-                        .doBeforeRetry(retrySignal ->
-                                log.warn("Retentativa {} de processar mensagem {}: {}",
-                                        retrySignal.totalRetries() + 1,
-                                        message.getId(),
-                                        retrySignal.failure().getMessage()))
-                        .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> {
-                            log.error("Falha após {} tentativas de processar mensagem {}",
-                                    maxRetryAttempts, message.getId(), retrySignal.failure());
-                            return retrySignal.failure();
-                        }));
-    }
-
-    @Transactional
+    /**
+     * Publica a mensagem e devolve o seu id; erros de desserialização ou publicação seguem no
+     * sinal de erro para serem registrados na agenda de retentativas.
+     */
 //    @Retry(name = "outboxProcessor")
-    public Mono<Void> processMessage(OutboxMessage message) {
+    public Mono<UUID> processMessage(OutboxMessage message) {
         return Mono.fromCallable(() -> {
+                    OutboxPublishEvent publishEvent = new OutboxPublishEvent();
+                    publishEvent.begin();
+                    publishEvent.messageId = String.valueOf(message.getId());
+                    publishEvent.eventType = message.getType();
                     try {
                         Class<?> eventType = Class.forName(message.getType());
-                        Object event = objectMapper.readValue(message.getData(), eventType);
+                        Object event = payloadSerializer.decode(message, eventType);
                         eventPublisher.publish((IDomainEvent) event);
                         log.debug("Published event of type {} with ID {}", message.getType(), message.getId());
-                        log.debug("Published event of type {} with ID {}", message.getType(), message.getId());
-                        return true;
-                    } catch (Exception e) {
-                        log.error("Error processing outbox message {}", message.getId(), e);
-                        return false;
+                        publishEvent.success = true;
+                        return message.getId();
+                    } finally {
+                        publishEvent.commit();
                     }
                 })
-                .flatMap(published -> {
-                    if (published) {
-                        // Marca a mensagem como processada
-                        return databaseClient.sql(
-                                        "UPDATE outbox_messages SET processed_date = :processedDate " +
-                                                "WHERE id = :id")
-                                .bind("processedDate", LocalDateTime.now())
-                                .bind("id", message.getId())
-                                .fetch()
-                                .rowsUpdated()
-                                .then();
-                    } else {
-                        return Mono.empty();
-                    }
-                });
+                // Listeners síncronos podem bloquear; cada faixa publica na sua própria virtual thread
+                .subscribeOn(BlockingSchedulers.virtualThreads());
+    }
+
+    /**
+     * Concessão das mensagens de uma faixa. O vencimento local é estimado a partir do instante
+     * anterior à reserva, então nunca é posterior ao {@code claimed_until} do banco.
+     */
+    private final class LaneLease {
+
+        private final Set<UUID> held = new HashSet<>();
+        private long expiresAtNanos;
+
+        private LaneLease(List<OutboxMessage> messages, long claimedAtNanos) {
+            messages.forEach(message -> held.add(message.getId()));
+            this.expiresAtNanos = claimedAtNanos + Duration.ofSeconds(leaseSeconds).toNanos();
+        }
+
+        boolean holds(UUID id) {
+            return held.contains(id) && System.nanoTime() < expiresAtNanos;
+        }
+
+        void release(UUID id) {
+            held.remove(id);
+        }
+
+        /**
+         * Estende a concessão de todas as mensagens que a faixa ainda segura, inclusive as já
+         * publicadas e ainda não confirmadas. As que o banco não devolve foram perdidas.
+         */
+        Mono<Void> renewIfNeeded() {
+            long halfLease = Duration.ofSeconds(leaseSeconds).toNanos() / 2;
+            if (held.isEmpty() || expiresAtNanos - System.nanoTime() > halfLease) {
+                return Mono.empty();
+            }
+            long renewedAtNanos = System.nanoTime();
+            return databaseClient.sql(
+                            "UPDATE outbox_messages SET claimed_until = now() + :leaseSeconds * INTERVAL '1 second' " +
+                                    "WHERE id = ANY(:ids) AND claimed_by = :workerId AND claimed_until >= now() " +
+                                    "RETURNING id")
+                    .bind("leaseSeconds", leaseSeconds)
+                    .bind("ids", held.toArray(UUID[]::new))
+                    .bind("workerId", workerId)
+                    .map((row, metadata) -> row.get("id", UUID.class))
+                    .all()
+                    .collectList()
+                    .doOnNext(renewed -> {
+                        if (renewed.size() < held.size()) {
+                            log.warn("Outbox relay {} perdeu a concessão de {} mensagem(ns)",
+                                    workerId, held.size() - renewed.size());
+                        }
+                        held.retainAll(renewed);
+                        expiresAtNanos = renewedAtNanos + Duration.ofSeconds(leaseSeconds).toNanos();
+                    })
+                    .then();
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,52 +1,85 @@
 package com.mussarrellos.backend.buildingblocks.application.outbox;
 
-import lombok.RequiredArgsConstructor;
+import io.r2dbc.postgresql.codec.Json;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Implementação da interface Outbox usando R2DBC para armazenamento reativo.
  * Esta implementação é específica para uso com banco de dados reativos.
+ * <p>
+ * As mensagens são gravadas com um único {@code INSERT} de várias linhas por bloco de até
+ * {@code outbox.insert-batch-size} mensagens, ou seja, uma ida ao banco por bloco em vez de
+ * uma por mensagem.
  */
 @Component
-@RequiredArgsConstructor
 public class R2dbcOutbox implements Outbox {
+
+    private static final String INSERT_PREFIX = "INSERT INTO outbox_messages (id, aggregate_id, occurred_on, type, payload_format, compressed, data, data_binary) VALUES ";
+
     private final DatabaseClient databaseClient;
-    private final List<OutboxMessage> messages = new ArrayList<>();
+    private final int insertBatchSize;
 
-    @Override
-    public void add(OutboxMessage message) {
-        messages.add(message);
+    public R2dbcOutbox(DatabaseClient databaseClient,
+                       @Value("${outbox.insert-batch-size:100}") int insertBatchSize) {
+        this.databaseClient = databaseClient;
+        this.insertBatchSize = insertBatchSize;
     }
 
     @Override
-    public Mono<Void> save() {
+    public Mono<Void> save(Collection<OutboxMessage> messages) {
         if (messages.isEmpty()) {
             return Mono.empty();
         }
 
-        // Cria um batch de operações para inserir todas as mensagens
-        List<OutboxMessage> messagesToSave = new ArrayList<>(messages);
-        messages.clear();
-
-        // Usa DatabaseClient para inserir as mensagens na tabela outbox_messages
-        return Mono.when(
-                messagesToSave.stream()
-                        .map(message -> databaseClient.sql(
-                                "INSERT INTO outbox_messages (id, occurred_on, type, data, processed_date) " +
-                                "VALUES (:id, :occurredOn, :type, :data, :processedDate)")
-                                .bind("id", message.getId())
-                                .bind("occurredOn", message.getOccurredOn())
-                                .bind("type", message.getType())
-                                .bind("data", message.getData())
-                                .bindNull("processedDate", java.time.LocalDateTime.class)
-                                .fetch()
-                                .rowsUpdated())
-                        .toList()
-        ).then();
+        List<OutboxMessage> messagesToSave = List.copyOf(messages);
+
+        int chunkSize = Math.max(1, insertBatchSize);
+        return Flux.range(0, (messagesToSave.size() + chunkSize - 1) / chunkSize)
+                .map(chunk -> messagesToSave.subList(chunk * chunkSize,
+                        Math.min(messagesToSave.size(), (chunk + 1) * chunkSize)))
+                .concatMap(this::insert)
+                .then();
+    }
+
+    private Mono<Long> insert(List<OutboxMessage> chunk) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * 112).append(INSERT_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(:id").append(i)
+                    .append(", :aggregateId").append(i)
+                    .append(", :occurredOn").append(i)
+                    .append(", :type").append(i)
+                    .append(", :payloadFormat").append(i)
+                    .append(", :compressed").append(i)
+                    .append(", :data").append(i)
+                    .append(", :dataBinary").append(i)
+                    .append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < chunk.size(); i++) {
+            OutboxMessage message = chunk.get(i);
+            spec = spec.bind("id" + i, message.getId());
+            spec = message.getAggregateId() != null
+                    ? spec.bind("aggregateId" + i, message.getAggregateId())
+                    : spec.bindNull("aggregateId" + i, UUID.class);
+            spec = spec.bind("occurredOn" + i, message.getOccurredOn())
+                    .bind("type" + i, message.getType())
+                    .bind("payloadFormat" + i, message.getPayloadFormat())
+                    .bind("compressed" + i, message.isCompressed());
+            // JSON sem compressão vai como jsonb direto dos bytes, sem passar por String
+            spec = message.isStoredAsJson()
+                    ? spec.bind("data" + i, Json.of(message.getPayload())).bindNull("dataBinary" + i, byte[].class)
+                    : spec.bindNull("data" + i, Json.class).bind("dataBinary" + i, message.getPayload());
+        }
+        return spec.fetch().rowsUpdated();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class R2dbcOutboxDeadLetters implements OutboxDeadLetters {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<OutboxDeadLetter> findRecent(int limit) {
+        return databaseClient.sql(
+                        "SELECT id, aggregate_id, occurred_on, type, attempts, last_error, dead_lettered_date " +
+                        "FROM outbox_dead_letters ORDER BY dead_lettered_date DESC LIMIT :limit")
+                .bind("limit", limit)
+                .map((row, metadata) -> new OutboxDeadLetter(
+                        row.get("id", UUID.class),
+                        row.get("aggregate_id", UUID.class),
+                        row.get("occurred_on", LocalDateTime.class),
+                        row.get("type", String.class),
+                        row.get("attempts", Integer.class),
+                        row.get("last_error", String.class),
+                        row.get("dead_lettered_date", LocalDateTime.class)))
+                .all();
+    }
+
+    @Override
+    public Mono<Boolean> requeue(UUID id) {
+        return databaseClient.sql(
+                        "WITH requeued AS (" +
+                        "    DELETE FROM outbox_dead_letters WHERE id = :id " +
+                        "    RETURNING id, aggregate_id, occurred_on, type, payload_format, compressed, data, data_binary) " +
+                        "INSERT INTO outbox_messages (id, aggregate_id, occurred_on, type, payload_format, " +
+                        "    compressed, data, data_binary) " +
+                        "SELECT id, aggregate_id, occurred_on, type, payload_format, compressed, data, data_binary " +
+                        "FROM requeued")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(count -> count > 0)
+                .doOnNext(requeued -> {
+                    if (requeued) log.info("Mensagem {} devolvida à outbox", id);
+                });
+    }
+}
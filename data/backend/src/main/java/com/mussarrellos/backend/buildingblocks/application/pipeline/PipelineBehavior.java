@@ -0,0 +1,18 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Comportamento executado em volta de cada comando ou query despachado pelo
+ * {@code Mediator} ou por um módulo. A ordem da cadeia segue {@code @Order} (ver {@link PipelineOrder}).
+ */
+public interface PipelineBehavior {
+
+    /**
+     * @param request a mensagem despachada
+     * @param handler o handler que vai tratá-la
+     * @param next    o próximo elo da cadeia; deve ser chamado para seguir até o handler
+     */
+    <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next);
+
+}
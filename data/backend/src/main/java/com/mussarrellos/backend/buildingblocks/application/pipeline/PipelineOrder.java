@@ -0,0 +1,18 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline;
+
+/**
+ * Posições dos comportamentos embutidos na cadeia; valores menores ficam mais externos.
+ */
+public final class PipelineOrder {
+
+    public static final int DEADLINE = 50;
+    public static final int JFR = 75;
+    public static final int METRICS = 100;
+    public static final int IDEMPOTENCY = 200;
+    public static final int QUERY_CACHE = 300;
+    public static final int QUERY_COALESCING = 400;
+    public static final int CONCURRENCY_LIMIT = 500;
+    public static final int VIRTUAL_THREADS = 600;
+
+    private PipelineOrder() {}
+}
@@ -0,0 +1,10 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline;
+
+import reactor.core.publisher.Mono;
+
+@FunctionalInterface
+public interface RequestHandlerDelegate<R> {
+
+    Mono<R> handle();
+
+}
@@ -0,0 +1,32 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Monta a cadeia de {@link PipelineBehavior} uma única vez e a executa em volta do handler.
+ */
+@Component
+public class RequestPipeline {
+
+    private final PipelineBehavior[] behaviors;
+
+    public RequestPipeline(ObjectProvider<PipelineBehavior> behaviors) {
+        this.behaviors = behaviors.orderedStream().toArray(PipelineBehavior[]::new);
+    }
+
+    public <R> Mono<R> execute(Object request, Object handler, RequestHandlerDelegate<R> handlerDelegate) {
+        return Mono.defer(() -> proceed(0, request, handler, handlerDelegate));
+    }
+
+    private <R> Mono<R> proceed(int index, Object request, Object handler, RequestHandlerDelegate<R> handlerDelegate) {
+        if (index == behaviors.length) {
+            // Handlers que lançam exceção antes de devolver o Mono viram sinal de erro, e os
+            // behaviors sempre passam pelo doFinally
+            return Mono.defer(handlerDelegate::handle);
+        }
+        return behaviors[index].handle(request, handler,
+                () -> proceed(index + 1, request, handler, handlerDelegate));
+    }
+}
@@ -0,0 +1,21 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.blocking;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um handler que faz trabalho bloqueante (BCrypt, geração de chaves, chamadas síncronas).
+ * O mediator assina o {@code Mono} do handler numa virtual thread em vez do event loop.
+ * <p>
+ * Só a assinatura muda de thread: etapas bloqueantes que rodam depois de um passo assíncrono
+ * (dentro de um {@code flatMap} após uma consulta, por exemplo) continuam na thread que emitiu o
+ * valor e precisam de {@code publishOn(BlockingSchedulers.virtualThreads())} antes delas.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BlockingHandler {
+}
@@ -0,0 +1,23 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.blocking;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler com uma virtual thread por tarefa para trabalho bloqueante, no lugar do
+ * {@code Schedulers.boundedElastic()}: não há pool para disputar nem fila limitada.
+ */
+public final class BlockingSchedulers {
+
+    private static final Scheduler VIRTUAL_THREADS = Schedulers.fromExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-vt-", 0).factory()),
+            "blocking-virtual-threads");
+
+    private BlockingSchedulers() {}
+
+    public static Scheduler virtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+}
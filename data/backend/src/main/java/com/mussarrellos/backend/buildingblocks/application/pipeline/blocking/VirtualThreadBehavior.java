@@ -0,0 +1,35 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.blocking;
+
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Executa os handlers marcados com {@link BlockingHandler} numa virtual thread. Fica no fim da
+ * cadeia para que só o handler, e não os demais comportamentos, saia do event loop.
+ */
+@Component
+@Order(PipelineOrder.VIRTUAL_THREADS)
+public class VirtualThreadBehavior implements PipelineBehavior {
+
+    private final ClassValue<Boolean> blockingHandlers = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> handlerType) {
+            return AnnotationUtils.findAnnotation(handlerType, BlockingHandler.class) != null;
+        }
+    };
+
+    @Override
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        if (!blockingHandlers.get(ClassUtils.getUserClass(handler))) {
+            return next.handle();
+        }
+        return Mono.defer(next::handle)
+                .subscribeOn(BlockingSchedulers.virtualThreads());
+    }
+}
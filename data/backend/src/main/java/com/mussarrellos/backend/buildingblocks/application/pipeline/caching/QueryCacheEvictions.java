@@ -0,0 +1,140 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.caching;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
+import com.mussarrellos.backend.buildingblocks.infra.postgres.PostgresNotifications;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Invalidação do cache de queries no momento em que um comando grava seus eventos, sem esperar
+ * o relay do outbox: a instância que executou o comando invalida na hora (quem escreveu lê o
+ * próprio dado) e avisa as demais por {@code NOTIFY} no canal {@value #CHANNEL}.
+ * <p>
+ * A notificação leva o próprio evento em JSON; cada instância o aplica aos seus caches. Se a
+ * notificação se perder, o TTL e a republicação pelo relay continuam limitando a defasagem.
+ */
+@Slf4j
+@Component
+public class QueryCacheEvictions {
+
+    static final String CHANNEL = "query_cache_evictions";
+
+    private final QueryCachingBehavior cachingBehavior;
+    private final DatabaseClient databaseClient;
+    private final ConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${mediator.query.cache.notifications.enabled:true}")
+    private boolean notificationsEnabled;
+
+    @Value("${mediator.query.cache.notifications.reconnect-delay-ms:1000}")
+    private long reconnectDelayMs;
+
+    private volatile Disposable subscription;
+
+    public QueryCacheEvictions(QueryCachingBehavior cachingBehavior, DatabaseClient databaseClient,
+                               ConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        this.cachingBehavior = cachingBehavior;
+        this.databaseClient = databaseClient;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Chamado depois que os eventos de um agregado foram gravados.
+     */
+    public Mono<Void> committed(Collection<? extends IDomainEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> events.forEach(cachingBehavior::onDomainEvent))
+                .thenMany(Flux.fromIterable(events))
+                .concatMap(this::broadcast)
+                .then();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!notificationsEnabled) return;
+
+        subscription = PostgresNotifications.listen(connectionFactory, CHANNEL,
+                        () -> log.info("Cache de queries escutando invalidações no canal {}", CHANNEL))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(reconnectDelayMs))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(retrySignal ->
+                                log.warn("Conexão LISTEN do cache de queries perdida, reconectando: {}",
+                                        retrySignal.failure().getMessage())))
+                .subscribe(this::received,
+                        error -> log.error("Listener de invalidações do cache de queries encerrado", error));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) current.dispose();
+    }
+
+    private Mono<Void> broadcast(IDomainEvent event) {
+        if (!notificationsEnabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+                    ObjectNode payload = objectMapper.createObjectNode()
+                            .put("node", nodeId)
+                            .put("type", event.getClass().getName());
+                    payload.set("event", objectMapper.valueToTree(event));
+                    return objectMapper.writeValueAsString(payload);
+                })
+                .flatMap(payload -> databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                        .bind("channel", CHANNEL)
+                        .bind("payload", payload)
+                        .fetch()
+                        .rowsUpdated())
+                .doOnError(error -> log.warn("Falha ao notificar invalidação de cache para {}: {}",
+                        event.getClass().getSimpleName(), error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    void received(Notification notification) {
+        String parameter = notification.getParameter();
+        if (parameter == null) return;
+
+        try {
+            JsonNode payload = objectMapper.readTree(parameter);
+            if (nodeId.equals(payload.path("node").asText())) return;
+
+            // Só tipos de evento que invalidam algum cache; o nome vem da rede e nunca é carregado
+            String type = payload.path("type").asText();
+            Optional<Class<? extends IDomainEvent>> eventType = cachingBehavior.evictionEventType(type);
+            if (eventType.isEmpty()) {
+                log.debug("Invalidação de cache ignorada: {} não invalida nenhum cache", type);
+                return;
+            }
+
+            cachingBehavior.onDomainEvent(objectMapper.treeToValue(payload.get("event"), eventType.get()));
+        } catch (Exception e) {
+            log.warn("Invalidação de cache recebida e ignorada: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.caching;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import com.mussarrellos.backend.buildingblocks.application.queries.CacheableQuery;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import com.mussarrellos.backend.buildingblocks.application.queries.QueryCacheEviction;
+import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de resultados para queries anotadas com {@link CacheableQuery}. Cada tipo de query tem
+ * seu próprio cache, limitado por tamanho e TTL, com métricas de acerto/erro em
+ * {@value #CACHE_METRIC}. Os eventos de domínio declarados em {@link CacheableQuery#evictOn()}
+ * invalidam as entradas indicadas por {@link CacheableQuery#evictKeys()}, ou o cache inteiro.
+ * <p>
+ * A invalidação acontece quando o comando grava os eventos ({@link QueryCacheEvictions}, que
+ * também a repassa às demais instâncias) e de novo quando o relay do outbox os publica.
+ */
+@Slf4j
+@Component
+@Order(PipelineOrder.QUERY_CACHE)
+@RequiredArgsConstructor
+public class QueryCachingBehavior implements PipelineBehavior {
+
+    public static final String CACHE_METRIC = "mediator.query.cache";
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<QueryCache> caches = new CopyOnWriteArrayList<>();
+
+    private final ClassValue<Optional<QueryCache>> cachesByType = new ClassValue<>() {
+        @Override
+        protected Optional<QueryCache> computeValue(Class<?> queryType) {
+            return Optional.ofNullable(AnnotationUtils.findAnnotation(queryType, CacheableQuery.class))
+                    .map(settings -> register(queryType, settings));
+        }
+    };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        if (!(request instanceof IQuery<?>)) {
+            return next.handle();
+        }
+
+        QueryCache cache = cachesByType.get(request.getClass()).orElse(null);
+        if (cache == null) {
+            return next.handle();
+        }
+
+        return Mono.defer(() -> {
+            Object cached = cache.entries.getIfPresent(request);
+            if (cached != null) {
+                return Mono.just((R) cached);
+            }
+
+            long generation = cache.generation.get();
+            return next.handle()
+                    .doOnNext(result -> cache.put(request, result, generation));
+        });
+    }
+
+    @EventListener
+    public void onDomainEvent(IDomainEvent event) {
+        for (QueryCache cache : caches) {
+            if (!cache.isEvictedBy(event)) continue;
+
+            if (cache.eviction.evictsAll()) {
+                log.debug("Invalidating {} cache on {}", cache.queryType.getSimpleName(), event.getClass().getSimpleName());
+                cache.invalidateAll();
+            } else {
+                Collection<?> keys = cache.eviction.keysFor(event);
+                log.debug("Invalidating {} {} entries on {}", keys.size(), cache.queryType.getSimpleName(),
+                        event.getClass().getSimpleName());
+                cache.invalidate(keys);
+            }
+        }
+    }
+
+    /**
+     * Tipo de evento pelo nome, entre os declarados em {@link CacheableQuery#evictOn()} dos caches
+     * já criados; um cache ainda não criado não tem entradas a invalidar.
+     */
+    Optional<Class<? extends IDomainEvent>> evictionEventType(String name) {
+        for (QueryCache cache : caches) {
+            for (Class<? extends IDomainEvent> eventType : cache.evictOn) {
+                if (eventType.getName().equals(name)) return Optional.of(eventType);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private QueryCache register(Class<?> queryType, CacheableQuery settings) {
+        Cache<Object, Object> entries = Caffeine.newBuilder()
+                .maximumSize(settings.maximumSize())
+                .expireAfterWrite(Duration.ofSeconds(settings.ttlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_METRIC, "query", queryType.getName());
+
+        QueryCacheEviction eviction = BeanUtils.instantiateClass(settings.evictKeys());
+        QueryCache cache = new QueryCache(queryType, entries, List.of(settings.evictOn()), eviction);
+        caches.add(cache);
+        log.debug("Query cache enabled for {} (maximumSize={}, ttl={}s)",
+                queryType.getSimpleName(), settings.maximumSize(), settings.ttlSeconds());
+        return cache;
+    }
+
+    /**
+     * A geração impede que um resultado lido antes de uma invalidação seja gravado depois dela;
+     * uma invalidação por chave também a avança, descartando as leituras em andamento do tipo.
+     */
+    private record QueryCache(Class<?> queryType,
+                              Cache<Object, Object> entries,
+                              List<Class<? extends IDomainEvent>> evictOn,
+                              QueryCacheEviction eviction,
+                              AtomicLong generation) {
+
+        private QueryCache(Class<?> queryType, Cache<Object, Object> entries,
+                           List<Class<? extends IDomainEvent>> evictOn, QueryCacheEviction eviction) {
+            this(queryType, entries, evictOn, eviction, new AtomicLong());
+        }
+
+        private boolean isEvictedBy(IDomainEvent event) {
+            for (Class<? extends IDomainEvent> eventType : evictOn) {
+                if (eventType.isInstance(event)) return true;
+            }
+            return false;
+        }
+
+        private void put(Object query, Object result, long expectedGeneration) {
+            if (generation.get() == expectedGeneration) {
+                entries.put(query, result);
+            }
+        }
+
+        private void invalidateAll() {
+            generation.incrementAndGet();
+            entries.invalidateAll();
+        }
+
+        private void invalidate(Collection<?> keys) {
+            generation.incrementAndGet();
+            entries.invalidateAll(keys);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.coalescing;
+
+import com.mussarrellos.backend.buildingblocks.application.deadline.Deadline;
+import com.mussarrellos.backend.buildingblocks.application.mediator.MessageBatch;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight para queries: enquanto uma query está em execução, queries iguais
+ * ({@code equals}) se inscrevem no mesmo resultado em vez de disparar outra execução.
+ * <p>
+ * O erro é entregue a todos os inscritos; o cancelamento de um inscrito não afeta os demais, e a
+ * execução só é cancelada quando todos desistem. Em qualquer desfecho a entrada sai do mapa,
+ * então nada é reaproveitado depois que a execução termina. A execução compartilhada roda com o
+ * contexto Reactor do primeiro inscrito, mas sem o {@link Deadline} dele: cada inscrito aplica o
+ * próprio prazo do seu lado ({@code DeadlineBehavior}), e o prazo curto de quem chegou primeiro
+ * não derruba quem chegou depois com mais tempo.
+ */
+@Component
+@Order(PipelineOrder.QUERY_COALESCING)
+@ConditionalOnProperty(name = "mediator.query.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueryCoalescingBehavior implements PipelineBehavior {
+
+    public static final String COALESCED_METRIC = "mediator.query.coalesced";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Object, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final ClassValue<Counter> coalesced = new ClassValue<>() {
+        @Override
+        protected Counter computeValue(Class<?> queryType) {
+            return Counter.builder(COALESCED_METRIC)
+                    .description("Queries atendidas por uma execução idêntica já em andamento")
+                    .tag("query", queryType.getName())
+                    .register(meterRegistry);
+        }
+    };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        if (!(request instanceof IQuery<?>)) {
+            return next.handle();
+        }
+
+        return Mono.deferContextual(context -> {
+            // Membros de um lote já foram deduplicados e aguardam a chamada em lote do próprio grupo
+            if (MessageBatch.isMember(context)) {
+                return next.handle();
+            }
+
+            Mono<?> existing = inFlight.get(request);
+            if (existing == null) {
+                Mono<R> flight = share(request, next);
+                existing = inFlight.putIfAbsent(request, flight);
+                if (existing == null) {
+                    return flight;
+                }
+            }
+            coalesced.get(request.getClass()).increment();
+            return (Mono<R>) existing;
+        });
+    }
+
+    /**
+     * Um inscrito que chega entre o término e a remoção da entrada reconecta no {@code refCount}
+     * e executa a query de novo — perde o compartilhamento, mas nunca recebe resultado velho.
+     */
+    private <R> Mono<R> share(Object query, RequestHandlerDelegate<R> next) {
+        Mono<?>[] self = new Mono<?>[1];
+        Mono<R> flight = Mono.defer(next::handle)
+                .contextWrite(Deadline::removeFrom)
+                .doFinally(signal -> inFlight.remove(query, self[0]))
+                .flux()
+                .publish()
+                .refCount(1)
+                .next();
+        self[0] = flight;
+        return flight;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concorrência AIMD guiado pela latência: cresce de forma aditiva (cerca de +1 a
+ * cada "janela" de execuções) enquanto a latência fica perto da referência, e encolhe de forma
+ * multiplicativa quando ela passa de {@link #LATENCY_TOLERANCE} vezes a referência.
+ * <p>
+ * A referência é uma média móvel lenta das latências observadas, de modo que o limite acompanha
+ * mudanças duradouras de carga mas reage rápido a filas se formando. A aquisição nunca bloqueia.
+ */
+final class AimdLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double baselineNanos;
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Registra a latência de uma execução concluída e recalcula o limite.
+     */
+    synchronized void onSample(long latencyNanos) {
+        if (baselineNanos == 0) {
+            baselineNanos = latencyNanos;
+            return;
+        }
+
+        double current = limit;
+        if (latencyNanos > baselineNanos * LATENCY_TOLERANCE) {
+            limit = Math.max(minLimit, current * BACKOFF_RATIO);
+        } else if (inFlight.get() * 2 >= (int) current) {
+            // Só cresce quando o limite está de fato sendo usado.
+            limit = Math.min(maxLimit, current + 1.0 / current);
+        }
+        baselineNanos += (latencyNanos - baselineNanos) * BASELINE_SMOOTHING;
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,25 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Ajusta os limites de concorrência do handler anotado. Todo handler tem seu próprio limite
+ * adaptativo; esta anotação serve para os que precisam de faixas diferentes das padrão
+ * ({@code mediator.concurrency.*}), como os que fazem trabalho pesado de CPU.
+ * Valores menores ou iguais a zero mantêm o padrão configurado.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConcurrencyLimit {
+
+    int initialLimit() default 0;
+
+    int minLimit() default 0;
+
+    int maxLimit() default 0;
+}
@@ -0,0 +1,112 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency;
+
+import com.mussarrellos.backend.buildingblocks.application.mediator.MessageBatch;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Bulkhead adaptativo por handler: cada handler tem seu próprio {@link AimdLimiter}, então
+ * handlers lentos ou pesados de CPU (BCrypt, geração de chaves RSA) esgotam apenas o próprio
+ * limite e não as execuções das queries baratas. Acima do limite a requisição é recusada na hora
+ * com {@link ConcurrencyLimitExceededException}.
+ */
+@Slf4j
+@Component
+@Order(PipelineOrder.CONCURRENCY_LIMIT)
+@ConditionalOnProperty(name = "mediator.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitBehavior implements PipelineBehavior {
+
+    public static final String LIMIT_METRIC = "mediator.concurrency.limit";
+    public static final String IN_FLIGHT_METRIC = "mediator.concurrency.inflight";
+    public static final String REJECTED_METRIC = "mediator.concurrency.rejected";
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultInitialLimit;
+    private final int defaultMinLimit;
+    private final int defaultMaxLimit;
+
+    private final ClassValue<HandlerLimit> limits = new ClassValue<>() {
+        @Override
+        protected HandlerLimit computeValue(Class<?> handlerType) {
+            return createLimit(handlerType);
+        }
+    };
+
+    public ConcurrencyLimitBehavior(MeterRegistry meterRegistry,
+                                    @Value("${mediator.concurrency.initial-limit:32}") int defaultInitialLimit,
+                                    @Value("${mediator.concurrency.min-limit:4}") int defaultMinLimit,
+                                    @Value("${mediator.concurrency.max-limit:256}") int defaultMaxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.defaultInitialLimit = defaultInitialLimit;
+        this.defaultMinLimit = defaultMinLimit;
+        this.defaultMaxLimit = defaultMaxLimit;
+    }
+
+    @Override
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        HandlerLimit handlerLimit = limits.get(ClassUtils.getUserClass(handler));
+        return Mono.deferContextual(context -> {
+            // Membros de um lote não executam o handler; o limite vale para a chamada em lote
+            if (MessageBatch.isMember(context)) {
+                return next.handle();
+            }
+
+            AimdLimiter limiter = handlerLimit.limiter;
+            if (!limiter.tryAcquire()) {
+                handlerLimit.rejected.increment();
+                return Mono.error(new ConcurrencyLimitExceededException(handlerLimit.name, limiter.limit()));
+            }
+
+            long start = System.nanoTime();
+            // Deferido: uma exceção lançada por next.handle() também passa pelo doFinally e devolve a vaga
+            return Mono.defer(next::handle)
+                    .doFinally(signal -> {
+                        limiter.release();
+                        if (signal != SignalType.CANCEL) {
+                            limiter.onSample(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private HandlerLimit createLimit(Class<?> handlerType) {
+        ConcurrencyLimit settings = AnnotationUtils.findAnnotation(handlerType, ConcurrencyLimit.class);
+        int initialLimit = settings != null && settings.initialLimit() > 0 ? settings.initialLimit() : defaultInitialLimit;
+        int minLimit = settings != null && settings.minLimit() > 0 ? settings.minLimit() : defaultMinLimit;
+        int maxLimit = settings != null && settings.maxLimit() > 0 ? settings.maxLimit() : defaultMaxLimit;
+        if (minLimit > maxLimit) {
+            throw new IllegalStateException("Invalid concurrency limits for " + handlerType.getSimpleName()
+                    + ": min " + minLimit + " > max " + maxLimit);
+        }
+
+        String name = handlerType.getName();
+        AimdLimiter limiter = new AimdLimiter(initialLimit, minLimit, maxLimit);
+        Gauge.builder(LIMIT_METRIC, limiter, AimdLimiter::limit)
+                .tag("handler", name)
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, limiter, AimdLimiter::inFlight)
+                .tag("handler", name)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder(REJECTED_METRIC)
+                .tag("handler", name)
+                .register(meterRegistry);
+
+        log.debug("Concurrency limit for {}: initial={}, min={}, max={}", name, initialLimit, minLimit, maxLimit);
+        return new HandlerLimit(name, limiter, rejected);
+    }
+
+    private record HandlerLimit(String name, AimdLimiter limiter, Counter rejected) {}
+}
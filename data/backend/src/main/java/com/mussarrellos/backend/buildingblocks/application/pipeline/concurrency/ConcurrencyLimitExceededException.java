@@ -0,0 +1,33 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Lançada quando o handler já está no seu limite de execuções simultâneas. A requisição é
+ * recusada sem esperar, com 503 e {@code Retry-After}, e pode ser repetida pelo cliente.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends ResponseStatusException {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final String handlerName;
+    private final int limit;
+
+    public ConcurrencyLimitExceededException(String handlerName, int limit) {
+        super(HttpStatus.SERVICE_UNAVAILABLE,
+                "Limite de concorrência atingido para " + handlerName + " (" + limit + ")");
+        this.handlerName = handlerName;
+        this.limit = limit;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return headers;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.deadline;
+
+import com.mussarrellos.backend.buildingblocks.application.deadline.Deadline;
+import com.mussarrellos.backend.buildingblocks.application.deadline.DeadlineExceededException;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Primeiro comportamento da cadeia: recusa a requisição cujo prazo já venceu, sem despachar.
+ * Queries em andamento são canceladas quando o prazo vence; comandos não, porque a gravação
+ * do agregado e a do outbox não são atômicas e um cancelamento entre as duas perderia eventos.
+ */
+@Component
+@Order(PipelineOrder.DEADLINE)
+public class DeadlineBehavior implements PipelineBehavior {
+
+    @Override
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        if (request instanceof IQuery<?>) {
+            return Deadline.bound(Mono.defer(next::handle));
+        }
+        return Mono.deferContextual(context -> Deadline.from(context).filter(Deadline::isExpired).isPresent()
+                ? Mono.error(new DeadlineExceededException())
+                : next.handle());
+    }
+}
@@ -0,0 +1,29 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.idempotency;
+
+import com.mussarrellos.backend.buildingblocks.application.idempotency.IdempotencyGuard;
+import com.mussarrellos.backend.buildingblocks.application.idempotency.IdempotencyKey;
+import com.mussarrellos.backend.buildingblocks.application.idempotency.Idempotent;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Deduplicação de comandos {@link Idempotent} pela {@link IdempotencyKey} do contexto; as regras
+ * estão no {@link IdempotencyGuard}.
+ */
+@Component
+@Order(PipelineOrder.IDEMPOTENCY)
+@RequiredArgsConstructor
+public class IdempotencyBehavior implements PipelineBehavior {
+
+    private final IdempotencyGuard guard;
+
+    @Override
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        return guard.execute(request, request.getClass().getName(), next::handle);
+    }
+}
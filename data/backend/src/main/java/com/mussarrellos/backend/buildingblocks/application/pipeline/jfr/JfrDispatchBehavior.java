@@ -0,0 +1,50 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.jfr;
+
+import com.mussarrellos.backend.buildingblocks.application.mediator.MessageBatch;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.metrics.MetricsBehavior;
+import com.mussarrellos.backend.buildingblocks.infra.jfr.MediatorDispatchEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Emite um {@link MediatorDispatchEvent} por execução. Com o evento desligado na gravação
+ * corrente, nada é alocado além da checagem.
+ */
+@Component
+@Order(PipelineOrder.JFR)
+public class JfrDispatchBehavior implements PipelineBehavior {
+
+    @Override
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        if (!MediatorDispatchEvent.enabled()) {
+            return next.handle();
+        }
+
+        return Mono.defer(() -> {
+            MediatorDispatchEvent event = new MediatorDispatchEvent();
+            if (request instanceof MessageBatch batch) {
+                event.requestType = batch.messageType().getName();
+                event.kind = MetricsBehavior.kindOf(batch.messageType()) + "-batch";
+            } else {
+                event.requestType = request.getClass().getName();
+                event.kind = MetricsBehavior.kindOf(request.getClass());
+            }
+            event.handler = ClassUtils.getUserClass(handler).getName();
+            event.begin();
+            return next.handle()
+                    .doFinally(signal -> {
+                        event.outcome = switch (signal) {
+                            case ON_ERROR -> MetricsBehavior.OUTCOME_ERROR;
+                            case CANCEL -> MetricsBehavior.OUTCOME_CANCELLED;
+                            default -> MetricsBehavior.OUTCOME_SUCCESS;
+                        };
+                        event.commit();
+                    });
+        });
+    }
+}
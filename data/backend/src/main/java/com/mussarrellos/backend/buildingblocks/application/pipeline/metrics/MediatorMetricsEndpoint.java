@@ -0,0 +1,115 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint {@code /actuator/mediator}: resumo por tipo de comando/query, ordenado pelo tempo total
+ * gasto, para localizar rapidamente o handler mais lento sob carga.
+ */
+@Component
+@Endpoint(id = "mediator")
+@RequiredArgsConstructor
+public class MediatorMetricsEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public Map<String, RequestStats> requests() {
+        return meterRegistry.find(MetricsBehavior.REQUESTS_METRIC).timers().stream()
+                .collect(Collectors.groupingBy(this::statsKey))
+                .entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), toStats(entry.getValue())))
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, RequestStats> entry) -> entry.getValue().totalTimeMs()).reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    @ReadOperation
+    public RequestStats request(@Selector String type) {
+        List<Timer> timers = meterRegistry.find(MetricsBehavior.REQUESTS_METRIC).timers().stream()
+                .filter(timer -> statsKey(timer).equals(type))
+                .toList();
+        return timers.isEmpty() ? null : toStats(timers);
+    }
+
+    /**
+     * Execuções em lote do mesmo tipo aparecem separadas, com o sufixo {@code #batch}.
+     */
+    private String statsKey(Timer timer) {
+        String type = timer.getId().getTag(MetricsBehavior.TYPE_TAG);
+        String kind = timer.getId().getTag(MetricsBehavior.KIND_TAG);
+        return kind != null && kind.endsWith("-batch") ? type + "#batch" : type;
+    }
+
+    private RequestStats toStats(List<Timer> timers) {
+        long count = 0;
+        long errors = 0;
+        long cancelled = 0;
+        double totalTimeMs = 0;
+        double maxMs = 0;
+        Map<String, Double> successPercentilesMs = Map.of();
+
+        for (Timer timer : timers) {
+            String outcome = timer.getId().getTag(MetricsBehavior.OUTCOME_TAG);
+            count += timer.count();
+            totalTimeMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            maxMs = Math.max(maxMs, timer.max(TimeUnit.MILLISECONDS));
+
+            if (MetricsBehavior.OUTCOME_ERROR.equals(outcome)) errors += timer.count();
+            if (MetricsBehavior.OUTCOME_CANCELLED.equals(outcome)) cancelled += timer.count();
+            if (MetricsBehavior.OUTCOME_SUCCESS.equals(outcome)) successPercentilesMs = percentiles(timer.takeSnapshot());
+        }
+
+        String kind = timers.getFirst().getId().getTag(MetricsBehavior.KIND_TAG);
+        Gauge active = meterRegistry.find(MetricsBehavior.ACTIVE_REQUESTS_METRIC)
+                .tag(MetricsBehavior.TYPE_TAG, timers.getFirst().getId().getTag(MetricsBehavior.TYPE_TAG))
+                .tag(MetricsBehavior.KIND_TAG, kind)
+                .gauge();
+
+        return new RequestStats(
+                kind,
+                count,
+                errors,
+                cancelled,
+                active == null ? 0 : (long) active.value(),
+                totalTimeMs,
+                count == 0 ? 0 : totalTimeMs / count,
+                maxMs,
+                successPercentilesMs);
+    }
+
+    private Map<String, Double> percentiles(HistogramSnapshot snapshot) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        return percentiles;
+    }
+
+    public record RequestStats(String kind,
+                               long count,
+                               long errors,
+                               long cancelled,
+                               long active,
+                               double totalTimeMs,
+                               double meanMs,
+                               double maxMs,
+                               Map<String, Double> successPercentilesMs) {
+    }
+}
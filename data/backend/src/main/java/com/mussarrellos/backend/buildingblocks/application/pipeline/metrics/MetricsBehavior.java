@@ -0,0 +1,116 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.metrics;
+
+import com.mussarrellos.backend.buildingblocks.application.mediator.MessageBatch;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineOrder;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registra, por tipo de comando/query, o histograma de latência (com contagem para vazão),
+ * o resultado de cada execução e quantas estão em andamento.
+ */
+@Component
+@Order(PipelineOrder.METRICS)
+@RequiredArgsConstructor
+public class MetricsBehavior implements PipelineBehavior {
+
+    public static final String REQUESTS_METRIC = "mediator.requests";
+    public static final String ACTIVE_REQUESTS_METRIC = "mediator.requests.active";
+
+    public static final String TYPE_TAG = "type";
+    public static final String KIND_TAG = "kind";
+    public static final String OUTCOME_TAG = "outcome";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_CANCELLED = "cancelled";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ClassValue<RequestMeters> meters = new ClassValue<>() {
+        @Override
+        protected RequestMeters computeValue(Class<?> requestType) {
+            return new RequestMeters(meterRegistry, requestType, kindOf(requestType));
+        }
+    };
+
+    private final ClassValue<RequestMeters> batchMeters = new ClassValue<>() {
+        @Override
+        protected RequestMeters computeValue(Class<?> messageType) {
+            return new RequestMeters(meterRegistry, messageType, kindOf(messageType) + "-batch");
+        }
+    };
+
+    @Override
+    public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+        RequestMeters requestMeters = request instanceof MessageBatch batch
+                ? batchMeters.get(batch.messageType())
+                : meters.get(request.getClass());
+        return Mono.defer(() -> {
+            requestMeters.active.incrementAndGet();
+            long start = System.nanoTime();
+            return next.handle()
+                    .doFinally(signal -> requestMeters.record(signal, System.nanoTime() - start));
+        });
+    }
+
+    public static String kindOf(Class<?> requestType) {
+        return IQuery.class.isAssignableFrom(requestType) ? "query" : "command";
+    }
+
+    private static final class RequestMeters {
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer success;
+        private final Timer error;
+        private final Timer cancelled;
+
+        private RequestMeters(MeterRegistry registry, Class<?> requestType, String kind) {
+            // Nome qualificado: módulos distintos têm comandos com o mesmo nome simples (ex.: GenerateRSAKeyCommand)
+            String type = requestType.getName();
+
+            this.success = timer(registry, type, kind, OUTCOME_SUCCESS);
+            this.error = timer(registry, type, kind, OUTCOME_ERROR);
+            this.cancelled = timer(registry, type, kind, OUTCOME_CANCELLED);
+
+            Gauge.builder(ACTIVE_REQUESTS_METRIC, active, AtomicInteger::get)
+                    .description("Comandos/queries em execução")
+                    .tag(TYPE_TAG, type)
+                    .tag(KIND_TAG, kind)
+                    .register(registry);
+        }
+
+        private void record(SignalType signal, long elapsedNanos) {
+            active.decrementAndGet();
+            Timer timer = switch (signal) {
+                case ON_ERROR -> error;
+                case CANCEL -> cancelled;
+                default -> success;
+            };
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private static Timer timer(MeterRegistry registry, String type, String kind, String outcome) {
+            return Timer.builder(REQUESTS_METRIC)
+                    .description("Latência do despacho de comandos e queries")
+                    .tag(TYPE_TAG, type)
+                    .tag(KIND_TAG, kind)
+                    .tag(OUTCOME_TAG, outcome)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+    }
+}
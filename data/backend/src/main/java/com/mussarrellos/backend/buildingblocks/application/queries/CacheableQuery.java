@@ -0,0 +1,40 @@
+package com.mussarrellos.backend.buildingblocks.application.queries;
+
+import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Habilita o cache do resultado de uma query no mediator. A chave é o próprio valor da query,
+ * por isso ela deve ter {@code equals}/{@code hashCode} por valor (um {@code record}, por exemplo).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CacheableQuery {
+
+    /**
+     * Tempo de vida de cada entrada, contado a partir da escrita.
+     */
+    long ttlSeconds() default 60;
+
+    /**
+     * Quantidade máxima de entradas mantidas para este tipo de query.
+     */
+    long maximumSize() default 10_000;
+
+    /**
+     * Eventos de domínio que invalidam entradas deste tipo de query ao serem publicados.
+     */
+    Class<? extends IDomainEvent>[] evictOn() default {};
+
+    /**
+     * Quais entradas cada evento de {@link #evictOn()} invalida. Sem uma estratégia, o evento
+     * limpa o cache inteiro do tipo de query.
+     */
+    Class<? extends QueryCacheEviction> evictKeys() default QueryCacheEviction.AllEntries.class;
+}
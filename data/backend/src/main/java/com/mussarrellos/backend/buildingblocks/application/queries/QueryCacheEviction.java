@@ -0,0 +1,44 @@
+package com.mussarrellos.backend.buildingblocks.application.queries;
+
+import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Traduz um evento de domínio nas entradas de cache que ele invalida, para que uma alteração
+ * remova só as queries do agregado afetado. Declarada em {@link CacheableQuery#evictKeys()};
+ * as implementações precisam de um construtor sem argumentos.
+ */
+@FunctionalInterface
+public interface QueryCacheEviction {
+
+    /**
+     * Queries (as chaves do cache) invalidadas pelo evento; vazio quando ele não afeta nenhuma.
+     */
+    Collection<?> keysFor(IDomainEvent event);
+
+    /**
+     * Quando verdadeiro, o evento invalida todas as entradas do tipo de query e {@link #keysFor}
+     * não é consultado.
+     */
+    default boolean evictsAll() {
+        return false;
+    }
+
+    /**
+     * Padrão: qualquer evento de {@link CacheableQuery#evictOn()} invalida todas as entradas.
+     */
+    final class AllEntries implements QueryCacheEviction {
+
+        @Override
+        public Collection<?> keysFor(IDomainEvent event) {
+            return List.of();
+        }
+
+        @Override
+        public boolean evictsAll() {
+            return true;
+        }
+    }
+}
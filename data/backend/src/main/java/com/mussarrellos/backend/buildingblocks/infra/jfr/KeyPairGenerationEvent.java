@@ -0,0 +1,27 @@
+package com.mussarrellos.backend.buildingblocks.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mussarrellos.KeyPairGeneration")
+@Label("Key Pair Generation")
+@Description("Geração de um par de chaves assimétricas")
+@Category({"Mussarrellos", "Security"})
+@StackTrace(false)
+public class KeyPairGenerationEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Key Size")
+    public int keySize;
+
+    public KeyPairGenerationEvent(String algorithm, int keySize) {
+        this.algorithm = algorithm;
+        this.keySize = keySize;
+    }
+}
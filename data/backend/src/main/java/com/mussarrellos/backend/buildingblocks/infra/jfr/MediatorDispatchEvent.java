@@ -0,0 +1,41 @@
+package com.mussarrellos.backend.buildingblocks.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(MediatorDispatchEvent.NAME)
+@Label("Mediator Dispatch")
+@Description("Execução de um comando ou query pelo mediator, do despacho ao término do handler")
+@Category({"Mussarrellos", "Mediator"})
+@StackTrace(false)
+public class MediatorDispatchEvent extends Event {
+
+    public static final String NAME = "com.mussarrellos.MediatorDispatch";
+
+    private static final EventType TYPE = EventType.getEventType(MediatorDispatchEvent.class);
+
+    @Label("Request Type")
+    public String requestType;
+
+    @Label("Kind")
+    @Description("command, query, command-batch ou query-batch")
+    public String kind;
+
+    @Label("Handler")
+    public String handler;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Permite pular a criação do evento quando ele está desligado na gravação corrente.
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,25 @@
+package com.mussarrellos.backend.buildingblocks.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.mussarrellos.OutboxPoll")
+@Label("Outbox Poll")
+@Description("Um ciclo do processador de outbox: leitura do lote e publicação das mensagens")
+@Category({"Mussarrellos", "Outbox"})
+@StackTrace(false)
+public class OutboxPollEvent extends Event {
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Lag")
+    @Description("Idade da mensagem mais antiga do lote no momento da leitura")
+    @Timespan(Timespan.MILLISECONDS)
+    public long lag;
+}
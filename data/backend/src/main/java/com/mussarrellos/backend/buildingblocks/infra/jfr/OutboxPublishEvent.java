@@ -0,0 +1,25 @@
+package com.mussarrellos.backend.buildingblocks.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mussarrellos.OutboxPublish")
+@Label("Outbox Publish")
+@Description("Tentativa de publicar uma mensagem de outbox como evento de domínio")
+@Category({"Mussarrellos", "Outbox"})
+@StackTrace(false)
+public class OutboxPublishEvent extends Event {
+
+    @Label("Message Id")
+    public String messageId;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,26 @@
+package com.mussarrellos.backend.buildingblocks.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mussarrellos.PasswordHash")
+@Label("Password Hash")
+@Description("Cálculo ou verificação de hash de senha (BCrypt)")
+@Category({"Mussarrellos", "Security"})
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    public static final String HASH = "hash";
+    public static final String VERIFY = "verify";
+
+    @Label("Operation")
+    public String operation;
+
+    public PasswordHashEvent(String operation) {
+        this.operation = operation;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mussarrellos.backend.buildingblocks.infra.postgres;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@code LISTEN} do Postgres sobre o r2dbc-postgresql. Cada assinatura abre uma conexão própria,
+ * fora do pool, que fica presa ao canal; o fluxo termina com erro quando a conexão cai, para que
+ * o chamador decida como reconectar.
+ */
+public final class PostgresNotifications {
+
+    private PostgresNotifications() {
+    }
+
+    /**
+     * @param onListening executado a cada (re)conexão, assim que o {@code LISTEN} está ativo
+     */
+    public static Flux<Notification> listen(ConnectionFactory connectionFactory, String channel, Runnable onListening) {
+        // Conexão fora do pool: fica presa ao LISTEN e não deve ser despejada por ociosidade
+        ConnectionFactory target = unwrap(connectionFactory, ConnectionFactory.class);
+
+        return Flux.usingWhen(target.create(),
+                connection -> {
+                    PostgresqlConnection postgres = unwrap(connection, PostgresqlConnection.class);
+                    return postgres.createStatement("LISTEN " + channel)
+                            .execute()
+                            .flatMap(PostgresqlResult::getRowsUpdated)
+                            .then()
+                            .doOnSuccess(ignored -> onListening.run())
+                            .thenMany(postgres.getNotifications())
+                            .concatWith(Flux.defer(() -> Flux.error(new IllegalStateException("Conexão LISTEN encerrada"))));
+                },
+                Connection::close);
+    }
+
+    private static <T> T unwrap(Object candidate, Class<T> type) {
+        Object current = candidate;
+        while (current instanceof Wrapped<?> wrapped && type.isInstance(wrapped.unwrap())) {
+            current = wrapped.unwrap();
+        }
+        if (!type.isInstance(current)) {
+            throw new IllegalStateException("Postgres notifications require r2dbc-postgresql, found "
+                    + current.getClass().getName());
+        }
+        return type.cast(current);
+    }
+}
@@ -3,9 +3,11 @@ package com.mussarrellos.backend.modules.cryptography;
 import com.mussarrellos.backend.modules.cryptography.application.CryptoModule;
 import com.mussarrellos.backend.modules.cryptography.application.commands.handler.GenerateRSAKeyCommandHandler;
 import com.mussarrellos.backend.modules.cryptography.application.contracts.ICryptoModule;
+import com.mussarrellos.backend.modules.cryptography.domain.factory.KeyPairGeneratorFactory;
 import com.mussarrellos.backend.modules.cryptography.domain.repository.CryptoRepository;
 import com.mussarrellos.backend.modules.cryptography.domain.services.CryptoService;
 import com.mussarrellos.backend.modules.cryptography.infra.CryptoRepositoryAdapterImpl;
+import com.mussarrellos.backend.modules.cryptography.infra.JfrKeyPairSource;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,7 +22,7 @@ public class CryptographyModuleConfig {
 
     @Bean
     CryptoService cryptoService(CryptoRepository cryptoRepository) {
-        return new CryptoService(cryptoRepository);
+        return new CryptoService(cryptoRepository, new JfrKeyPairSource(KeyPairGeneratorFactory::generateRSAKeyPair));
     }
 
     @Bean
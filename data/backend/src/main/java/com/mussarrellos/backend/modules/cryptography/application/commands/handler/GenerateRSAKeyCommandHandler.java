@@ -1,6 +1,8 @@
 package com.mussarrellos.backend.modules.cryptography.application.commands.handler;
 
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommandHandler;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.blocking.BlockingHandler;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency.ConcurrencyLimit;
 import com.mussarrellos.backend.modules.cryptography.application.commands.GenerateRSAKeyCommand;
 import com.mussarrellos.backend.modules.cryptography.application.dtos.RSAKeyDto;
 import com.mussarrellos.backend.modules.cryptography.domain.services.CryptoService;
@@ -10,6 +12,8 @@ import reactor.core.publisher.Mono;
 
 import java.security.interfaces.RSAPublicKey;
 
+@BlockingHandler
+@ConcurrencyLimit(initialLimit = 4, minLimit = 1, maxLimit = 16)
 @Component
 @RequiredArgsConstructor
 public class GenerateRSAKeyCommandHandler implements ICommandHandler<GenerateRSAKeyCommand, RSAKeyDto> {
@@ -2,6 +2,7 @@ package com.mussarrellos.backend.modules.cryptography.domain.factory;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -25,6 +26,17 @@ public final class KeyPairGeneratorFactory {
         return createRSAKeyPairGenerator(DEFAULT_RSA_KEY_SIZE);
     }
 
+    /**
+     * Gera um par de chaves RSA com o tamanho padrão.
+     */
+    public static KeyPair generateRSAKeyPair() {
+        KeyPairGenerator generator = createKeyPairGenerator();
+        if (generator == null) {
+            throw new IllegalStateException("Gerador de chaves " + RSA_ALGORITHM + " indisponível");
+        }
+        return generator.generateKeyPair();
+    }
+
     public static KeyPairGenerator createRSAKeyPairGenerator(int keySize) {
         validateKeySize(keySize);
         return createKeyPairGenerator(RSA_ALGORITHM, keySize);
@@ -0,0 +1,13 @@
+package com.mussarrellos.backend.modules.cryptography.domain.factory;
+
+import java.security.KeyPair;
+
+/**
+ * Origem dos pares de chaves usados pelo {@code CryptoService}; a implementação padrão é
+ * {@link KeyPairGeneratorFactory#generateRSAKeyPair()}.
+ */
+@FunctionalInterface
+public interface KeyPairSource {
+
+    KeyPair generate();
+}
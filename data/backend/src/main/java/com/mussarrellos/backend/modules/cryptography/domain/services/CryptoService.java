@@ -1,11 +1,10 @@
 package com.mussarrellos.backend.modules.cryptography.domain.services;
 
-import com.mussarrellos.backend.modules.cryptography.domain.factory.KeyPairGeneratorFactory;
+import com.mussarrellos.backend.modules.cryptography.domain.factory.KeyPairSource;
 import com.mussarrellos.backend.modules.cryptography.domain.repository.CryptoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.security.KeyPair;
 import java.security.PublicKey;
@@ -16,6 +15,7 @@ import java.time.LocalDateTime;
 public class CryptoService {
 
     private final CryptoRepository cryptoRepository;
+    private final KeyPairSource keyPairSource;
 
     public Mono<KeyPair> generateRSAKeyPair(int timeoutMinutes) {
         if (timeoutMinutes <= 0) {
@@ -31,8 +31,7 @@ public class CryptoService {
                             .thenReturn(keyPair)
                             .doOnSuccess(kp -> log.debug("Chave RSA armazenada com sucesso"))
                             .doOnError(e -> log.error("Erro ao armazenar chave RSA", e));
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+                });
     }
 
     public Mono<Boolean> keyExistsByPublicKey(PublicKey publicKey) {
@@ -40,13 +39,12 @@ public class CryptoService {
             return Mono.error(new IllegalArgumentException("A chave pública não pode ser nula"));
         }
         
-        return Mono.fromCallable(() -> cryptoRepository.existsValidKey(publicKey).block())
-                .subscribeOn(Schedulers.boundedElastic());
+        return cryptoRepository.existsValidKey(publicKey);
     }
 
     private KeyPair generateKeyPair() {
         try {
-            return KeyPairGeneratorFactory.createKeyPairGenerator().generateKeyPair();
+            return keyPairSource.generate();
         } catch (RuntimeException e) {
             log.error("Falha ao gerar par de chaves RSA", e);
         }
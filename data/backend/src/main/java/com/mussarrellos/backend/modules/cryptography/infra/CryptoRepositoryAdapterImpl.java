@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.security.PrivateKey;
@@ -24,7 +23,6 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CryptoRepositoryAdapterImpl implements CryptoRepository {
 
     private static final Map<PublicKey, KeyEntry> keyStore = new ConcurrentHashMap<>();
-    private static final Scheduler BLOCKING_SCHEDULER = Schedulers.boundedElastic();
     private static final int ONE_HOUR = 1;
     private static final int MIN_REMOVED_KEYS_TO_LOG = 0;
 
@@ -43,7 +41,6 @@ public class CryptoRepositoryAdapterImpl implements CryptoRepository {
                     log.debug("Storing key {} with expiration {}", publicKey, expiresAt);
                     keyStore.put(publicKey, new KeyEntry(privateKey, expiresAt));
                 })
-                .subscribeOn(BLOCKING_SCHEDULER)
                 .then();
     }
 
@@ -54,8 +51,7 @@ public class CryptoRepositoryAdapterImpl implements CryptoRepository {
                     return Optional.ofNullable(keyStore.get(publicKey))
                             .filter(KeyEntry::isValid)
                             .isPresent();
-                })
-                .subscribeOn(BLOCKING_SCHEDULER);
+                });
     }
 
     public Mono<Void> removeExpiredKeys() {
@@ -68,7 +64,6 @@ public class CryptoRepositoryAdapterImpl implements CryptoRepository {
                     int removed = before - keyStore.size();
                     if (removed > MIN_REMOVED_KEYS_TO_LOG) log.info("Removed {} expired RSA keys", removed);
                 })
-                .subscribeOn(BLOCKING_SCHEDULER)
                 .then();
     }
 
@@ -0,0 +1,33 @@
+package com.mussarrellos.backend.modules.cryptography.infra;
+
+import com.mussarrellos.backend.buildingblocks.infra.jfr.KeyPairGenerationEvent;
+import com.mussarrellos.backend.modules.cryptography.domain.factory.KeyPairSource;
+import lombok.RequiredArgsConstructor;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAKey;
+
+/**
+ * Registra no JFR cada par de chaves gerado pelo {@code delegate}.
+ */
+@RequiredArgsConstructor
+public class JfrKeyPairSource implements KeyPairSource {
+
+    private final KeyPairSource delegate;
+
+    @Override
+    public KeyPair generate() {
+        KeyPairGenerationEvent event = new KeyPairGenerationEvent(null, 0);
+        event.begin();
+        try {
+            KeyPair keyPair = delegate.generate();
+            event.algorithm = keyPair.getPublic().getAlgorithm();
+            if (keyPair.getPublic() instanceof RSAKey rsaKey) {
+                event.keySize = rsaKey.getModulus().bitLength();
+            }
+            return keyPair;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.mussarrellos.backend.modules.customer;
 
 import com.mussarrellos.backend.buildingblocks.application.outbox.Outbox;
 import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxMessageFactory;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.caching.QueryCacheEvictions;
+import com.mussarrellos.backend.buildingblocks.infra.jfr.JfrPasswordEncoder;
 import com.mussarrellos.backend.modules.customer.application.CustomerModule;
 import com.mussarrellos.backend.modules.customer.application.commands.handlers.ChangeCustomerEmailCommandHandler;
 import com.mussarrellos.backend.modules.customer.application.commands.handlers.ChangeCustomerPasswordCommandHandler;
@@ -17,20 +19,22 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class CustomerModuleConfig {
 
     @Bean
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder() {
+        return new JfrPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     @Bean
     public CustomerRepository clientRepository(CustomerModelRepository repository, Outbox outbox,
-                                               OutboxMessageFactory messageFactory, CustomerModelMapper mapper) {
+                                               OutboxMessageFactory messageFactory, QueryCacheEvictions queryCacheEvictions,
+                                               CustomerModelMapper mapper) {
 
-        return new CustomerRepositoryAdapter(repository, outbox, messageFactory, mapper);
+        return new CustomerRepositoryAdapter(repository, outbox, messageFactory, queryCacheEvictions, mapper);
     }
 
     @Bean
@@ -1,5 +1,7 @@
 package com.mussarrellos.backend.modules.customer.api;
 
+import com.mussarrellos.backend.buildingblocks.api.internalcommands.DeferredCommandResponses;
+import com.mussarrellos.backend.buildingblocks.application.internalcommands.CommandsScheduler;
 import com.mussarrellos.backend.buildingblocks.application.mediator.Mediator;
 import com.mussarrellos.backend.modules.customer.api.requests.ChangeCustomerEmailRequest;
 import com.mussarrellos.backend.modules.customer.api.requests.ChangeCustomerPasswordRequest;
@@ -27,14 +29,18 @@ import java.util.UUID;
 public class CustomerController {
 
     private final Mediator mediator;
+    private final CommandsScheduler commandsScheduler;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseStatus(HttpStatus.CREATED)
-    public Mono<UUID> registerClient(@RequestBody RegisterCustomerRequest request) {
+    public Mono<ResponseEntity<UUID>> registerClient(@RequestBody RegisterCustomerRequest request,
+                                                     @RequestHeader(value = DeferredCommandResponses.PREFER_HEADER, required = false) String prefer) {
         log.info("Registrando novo cliente com email: {}", request.email());
-        return mediator.send(
-                new RegisterCustomerCommand(request.email(), request.password())
-        );
+        RegisterCustomerCommand command = new RegisterCustomerCommand(request.email(), request.password());
+        if (DeferredCommandResponses.prefersAsync(prefer)) {
+            return DeferredCommandResponses.accepted(commandsScheduler, command);
+        }
+        return mediator.send(command)
+                .map(id -> ResponseEntity.status(HttpStatus.CREATED).body(id));
     }
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -1,10 +1,12 @@
 package com.mussarrellos.backend.modules.customer.application.commands;
 
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommandWithoutResult;
+import com.mussarrellos.backend.buildingblocks.application.idempotency.Idempotent;
 
 
 import java.util.UUID;
 
 
+@Idempotent
 public record ChangeCustomerPasswordCommand(UUID clientId, String currentPassword,
                                             String newPassword) implements ICommandWithoutResult { }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.mussarrellos.backend.modules.customer.application.commands;
 
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommand;
+import com.mussarrellos.backend.buildingblocks.application.idempotency.Idempotent;
+import com.mussarrellos.backend.buildingblocks.application.internalcommands.DeferredCommand;
 
 import java.util.UUID;
 
+@Idempotent
+@DeferredCommand
 public record RegisterCustomerCommand(String email, String password) implements ICommand<UUID> { }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.mussarrellos.backend.modules.customer.application.commands.handlers;
 
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommandWithoutResultHandler;
 import com.mussarrellos.backend.modules.customer.application.commands.ChangeCustomerEmailCommand;
+import com.mussarrellos.backend.modules.customer.domain.entities.Customer;
 import com.mussarrellos.backend.modules.customer.domain.entities.types.CustomerId;
 import com.mussarrellos.backend.modules.customer.domain.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,15 +19,15 @@ public class ChangeCustomerEmailCommandHandler implements ICommandWithoutResultH
     public Mono<Void> handle(ChangeCustomerEmailCommand command) {
         log.debug("Processando comando ChangeClientEmailCommand para cliente ID: {}", command.clientId());
         
-        return repository.findById(new CustomerId(command.clientId()))
-            .switchIfEmpty(Mono.error(new IllegalArgumentException("Cliente não encontrado com ID: " + command.clientId())))
-            .flatMap(client -> {
-                client.changeEmail(
-                    command.newEmail(),
-                    email -> repository.checkEmailUniqueness(email).block()
-                );
-                
-                return repository.save(client).then();
+        Mono<Customer> client = repository.findById(new CustomerId(command.clientId()))
+            .switchIfEmpty(Mono.error(new IllegalArgumentException("Cliente não encontrado com ID: " + command.clientId())));
+
+        return Mono.zip(client, repository.checkEmailUniqueness(command.newEmail()))
+            .flatMap(tuple -> {
+                boolean unique = tuple.getT2();
+                tuple.getT1().changeEmail(command.newEmail(), email -> unique);
+
+                return repository.save(tuple.getT1()).then();
             })
             .doOnSuccess(v -> log.debug("Email do cliente alterado com sucesso para ID: {}", command.clientId()))
             .doOnError(error -> log.error("Erro ao alterar email do cliente: {}", error.getMessage()));
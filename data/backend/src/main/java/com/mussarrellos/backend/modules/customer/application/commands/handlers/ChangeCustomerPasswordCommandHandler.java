@@ -1,6 +1,9 @@
 package com.mussarrellos.backend.modules.customer.application.commands.handlers;
 
 import com.mussarrellos.backend.buildingblocks.application.commands.CommandHandler;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.blocking.BlockingHandler;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.blocking.BlockingSchedulers;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency.ConcurrencyLimit;
 import com.mussarrellos.backend.modules.customer.application.commands.ChangeCustomerPasswordCommand;
 import com.mussarrellos.backend.modules.customer.domain.entities.types.CustomerId;
 import com.mussarrellos.backend.modules.customer.domain.repository.CustomerRepository;
@@ -8,6 +11,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
+@BlockingHandler
+@ConcurrencyLimit(initialLimit = 4, minLimit = 1, maxLimit = 16)
 @Slf4j
 @RequiredArgsConstructor
 public class ChangeCustomerPasswordCommandHandler implements CommandHandler<ChangeCustomerPasswordCommand, Void> {
@@ -19,6 +24,8 @@ public class ChangeCustomerPasswordCommandHandler implements CommandHandler<Chan
         
         return customerRepository.findById(new CustomerId(command.clientId()))
             .switchIfEmpty(Mono.error(new IllegalArgumentException("Cliente não encontrado com ID: " + command.clientId())))
+            // O BCrypt roda depois da consulta, fora da thread do driver
+            .publishOn(BlockingSchedulers.virtualThreads())
             .flatMap(client -> {
                 try {
                     // Altera a senha do cliente
@@ -1,6 +1,8 @@
 package com.mussarrellos.backend.modules.customer.application.commands.handlers;
 
 import com.mussarrellos.backend.buildingblocks.application.commands.ICommandHandler;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.blocking.BlockingHandler;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency.ConcurrencyLimit;
 import com.mussarrellos.backend.modules.customer.application.commands.RegisterCustomerCommand;
 import com.mussarrellos.backend.modules.customer.domain.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +11,8 @@ import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
+@BlockingHandler
+@ConcurrencyLimit(initialLimit = 4, minLimit = 1, maxLimit = 16)
 @Slf4j
 @RequiredArgsConstructor
 public class RegisterCustomerCommandHandler implements ICommandHandler<RegisterCustomerCommand, UUID> {
@@ -1,6 +1,11 @@
 package com.mussarrellos.backend.modules.customer.application.queries;
 
+import com.mussarrellos.backend.buildingblocks.application.queries.CacheableQuery;
 import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
 import com.mussarrellos.backend.modules.customer.application.dtos.CustomerDto;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerEmailChangedEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerPasswordChangedEvent;
 
+@CacheableQuery(ttlSeconds = 30, evictOn = {CustomerEmailChangedEvent.class, CustomerPasswordChangedEvent.class},
+        evictKeys = GetCustomerByEmailQueryEviction.class)
 public record GetCustomerByEmailQuery(String email) implements IQuery<CustomerDto> { }
\ No newline at end of file
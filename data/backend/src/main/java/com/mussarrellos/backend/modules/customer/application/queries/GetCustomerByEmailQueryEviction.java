@@ -0,0 +1,27 @@
+package com.mussarrellos.backend.modules.customer.application.queries;
+
+import com.mussarrellos.backend.buildingblocks.application.queries.QueryCacheEviction;
+import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerEmailChangedEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerPasswordChangedEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Invalida as entradas pelo e-mail antigo e pelo novo, na troca de e-mail, e pelo e-mail atual
+ * na troca de senha.
+ */
+public class GetCustomerByEmailQueryEviction implements QueryCacheEviction {
+
+    @Override
+    public Collection<?> keysFor(IDomainEvent event) {
+        return switch (event) {
+            case CustomerEmailChangedEvent changed -> List.of(
+                    new GetCustomerByEmailQuery(changed.getOldEmail()),
+                    new GetCustomerByEmailQuery(changed.getNewEmail()));
+            case CustomerPasswordChangedEvent changed -> List.of(new GetCustomerByEmailQuery(changed.getEmail()));
+            default -> List.of();
+        };
+    }
+}
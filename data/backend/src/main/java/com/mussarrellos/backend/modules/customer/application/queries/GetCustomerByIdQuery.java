@@ -1,8 +1,13 @@
 package com.mussarrellos.backend.modules.customer.application.queries;
 
+import com.mussarrellos.backend.buildingblocks.application.queries.CacheableQuery;
 import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
 import com.mussarrellos.backend.modules.customer.application.dtos.CustomerDto;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerEmailChangedEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerPasswordChangedEvent;
 
 import java.util.UUID;
 
+@CacheableQuery(ttlSeconds = 30, evictOn = {CustomerEmailChangedEvent.class, CustomerPasswordChangedEvent.class},
+        evictKeys = GetCustomerByIdQueryEviction.class)
 public record GetCustomerByIdQuery(UUID clientId) implements IQuery<CustomerDto> { }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.mussarrellos.backend.modules.customer.application.queries;
+
+import com.mussarrellos.backend.buildingblocks.application.queries.QueryCacheEviction;
+import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerEmailChangedEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerPasswordChangedEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Invalida apenas a entrada do cliente alterado.
+ */
+public class GetCustomerByIdQueryEviction implements QueryCacheEviction {
+
+    @Override
+    public Collection<?> keysFor(IDomainEvent event) {
+        return switch (event) {
+            case CustomerEmailChangedEvent changed -> List.of(new GetCustomerByIdQuery(changed.getCustomerId()));
+            case CustomerPasswordChangedEvent changed -> List.of(new GetCustomerByIdQuery(changed.getCustomerId()));
+            default -> List.of();
+        };
+    }
+}
@@ -1,17 +1,23 @@
 package com.mussarrellos.backend.modules.customer.application.queries.handlers;
 
+import com.mussarrellos.backend.buildingblocks.application.mediator.BatchHandler;
 import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
 import com.mussarrellos.backend.modules.customer.application.dtos.CustomerDto;
 import com.mussarrellos.backend.modules.customer.application.queries.GetCustomerByIdQuery;
+import com.mussarrellos.backend.modules.customer.domain.entities.Customer;
 import com.mussarrellos.backend.modules.customer.domain.entities.types.CustomerId;
 import com.mussarrellos.backend.modules.customer.domain.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @RequiredArgsConstructor
-public class GetCustomerByIdQueryHandler implements QueryHandler<GetCustomerByIdQuery, CustomerDto> {
+public class GetCustomerByIdQueryHandler implements QueryHandler<GetCustomerByIdQuery, CustomerDto>,
+        BatchHandler<GetCustomerByIdQuery, CustomerDto> {
 
     private final CustomerRepository repository;
 
@@ -21,14 +27,35 @@ public class GetCustomerByIdQueryHandler implements QueryHandler<GetCustomerById
         
         return repository.findById(new CustomerId(query.clientId()))
             .switchIfEmpty(Mono.error(new IllegalArgumentException("Cliente não encontrado com ID: " + query.clientId())))
-            .map(client -> new CustomerDto(
-                client.getId().getValue(),
-                client.getEmail(),
-                client.getRegistrationDate(),
-                client.getEmailUpdatedDate(),
-                client.getPasswordUpdatedDate()
-            ))
+            .map(this::toDto)
             .doOnSuccess(dto -> log.debug("Cliente encontrado com ID: {}", dto.id()))
             .doOnError(error -> log.error("Erro ao buscar cliente: {}", error.getMessage()));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Busca todos os clientes do lote numa única consulta. IDs inexistentes ficam fora do mapa.
+     */
+    @Override
+    public Mono<Map<GetCustomerByIdQuery, CustomerDto>> handle(List<GetCustomerByIdQuery> queries) {
+        log.debug("Processando lote de {} consultas GetClientByIdQuery", queries.size());
+
+        List<CustomerId> ids = queries.stream()
+                .map(query -> new CustomerId(query.clientId()))
+                .distinct()
+                .toList();
+
+        return repository.findAllById(ids)
+                .collectMap(client -> new GetCustomerByIdQuery(client.getId().getValue()), this::toDto)
+                .doOnError(error -> log.error("Erro ao buscar lote de clientes: {}", error.getMessage()));
+    }
+
+    private CustomerDto toDto(Customer client) {
+        return new CustomerDto(
+            client.getId().getValue(),
+            client.getEmail(),
+            client.getRegistrationDate(),
+            client.getEmailUpdatedDate(),
+            client.getPasswordUpdatedDate()
+        );
+    }
+}
@@ -2,6 +2,8 @@ package com.mussarrellos.backend.modules.customer.domain.entities;
 
 import com.mussarrellos.backend.buildingblocks.domain.entities.Entity;
 import com.mussarrellos.backend.modules.customer.domain.entities.types.CustomerId;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerEmailChangedEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerPasswordChangedEvent;
 import com.mussarrellos.backend.modules.customer.domain.rules.CustomerRulesFactory;
 import lombok.Getter;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -49,39 +51,38 @@ public class Customer extends Entity<CustomerId> {
     }
 
     public void changeEmail(String newEmail, EmailUniquenessChecker checker) {
-        String oldEmail = this.email;
-        
         this.checkRule(CustomerRulesFactory.emailMustBeValid(newEmail));
         this.checkRule(CustomerRulesFactory.emailMustBeUnique(newEmail, checker));
 
+        String oldEmail = this.email;
         this.email = newEmail;
         this.emailUpdatedDate = LocalDateTime.now();
 
-//        this.addDomainEvent(ClientEmailChangedEvent.create(
-//                id.getValue(), oldEmail, newEmail
-//        )); TODO: Refatorar todas os DomainEventHandlers para usar a interface do buildingblocks...
-//    }
+        this.addDomainEvent(new CustomerEmailChangedEvent(id.getValue(), oldEmail, newEmail));
     }
 
     public void changePassword(String currentPassword, String newPassword) {
-        if (!passwordEncoder.matches(currentPassword, hashedPassword)) {
+        if (!passwordMatches(currentPassword)) {
             throw new IllegalArgumentException("A senha atual está incorreta."); // TODO: lançar exception personalizada... (elegante)
         }
 
         this.checkRule(CustomerRulesFactory.passwordMustBeStrong(newPassword));
         this.checkRule(CustomerRulesFactory.passwordMustNotBeSame(newPassword,
-                (password) -> passwordEncoder.matches(password, hashedPassword)));
+                this::passwordMatches));
 
         this.hashedPassword = hashPassword(newPassword);
         this.passwordUpdatedDate = LocalDateTime.now();
-//        this.addDomainEvent(ClientPasswordChangedEvent.create(id.getValue())); TODO: Refatorar todas os DomainEventHandlers para usar a interface do buildingblocks...
-//    }
+        this.addDomainEvent(new CustomerPasswordChangedEvent(id.getValue(), email));
     }
 
     private String hashPassword(String password) {
         return passwordEncoder.encode(password);
     }
 
+    private boolean passwordMatches(String password) {
+        return passwordEncoder.matches(password, hashedPassword);
+    }
+
     @FunctionalInterface
     public interface EmailUniquenessChecker {
         boolean isEmailUnique(String email);
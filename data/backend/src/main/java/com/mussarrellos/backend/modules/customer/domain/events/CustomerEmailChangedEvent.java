@@ -1,8 +1,21 @@
 package com.mussarrellos.backend.modules.customer.domain.events;
 
 import com.mussarrellos.backend.buildingblocks.domain.events.DomainEventBase;
+import lombok.Getter;
 
+import java.util.UUID;
+
+@Getter
 public class CustomerEmailChangedEvent extends DomainEventBase {
 
+    private final UUID customerId;
+    private final String oldEmail;
+    private final String newEmail;
 
-} 
\ No newline at end of file
+    public CustomerEmailChangedEvent(UUID customerId, String oldEmail, String newEmail) {
+        super();
+        this.customerId = customerId;
+        this.oldEmail = oldEmail;
+        this.newEmail = newEmail;
+    }
+}
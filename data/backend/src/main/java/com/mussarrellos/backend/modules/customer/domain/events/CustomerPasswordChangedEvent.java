@@ -1,8 +1,19 @@
 package com.mussarrellos.backend.modules.customer.domain.events;
 
 import com.mussarrellos.backend.buildingblocks.domain.events.DomainEventBase;
+import lombok.Getter;
 
+import java.util.UUID;
+
+@Getter
 public class CustomerPasswordChangedEvent extends DomainEventBase {
-    
 
-} 
\ No newline at end of file
+    private final UUID customerId;
+    private final String email;
+
+    public CustomerPasswordChangedEvent(UUID customerId, String email) {
+        super();
+        this.customerId = customerId;
+        this.email = email;
+    }
+}
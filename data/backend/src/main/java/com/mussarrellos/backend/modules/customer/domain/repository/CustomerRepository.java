@@ -2,8 +2,10 @@ package com.mussarrellos.backend.modules.customer.domain.repository;
 
 import com.mussarrellos.backend.modules.customer.domain.entities.Customer;
 import com.mussarrellos.backend.modules.customer.domain.entities.types.CustomerId;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface CustomerRepository {
@@ -12,6 +14,8 @@ public interface CustomerRepository {
 
     Mono<Customer> findById(CustomerId id);
 
+    Flux<Customer> findAllById(Collection<CustomerId> ids);
+
     Mono<Customer> findByEmail(String email);
 
     Mono<Boolean> checkEmailUniqueness(String email);
@@ -1,8 +1,10 @@
 package com.mussarrellos.backend.modules.customer.infra.persistance.adapter;
 
+import com.mussarrellos.backend.buildingblocks.application.deadline.Deadline;
 import com.mussarrellos.backend.buildingblocks.application.outbox.Outbox;
 import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxMessage;
 import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxMessageFactory;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.caching.QueryCacheEvictions;
 import com.mussarrellos.backend.buildingblocks.domain.events.IDomainEvent;
 import com.mussarrellos.backend.modules.customer.domain.entities.Customer;
 import com.mussarrellos.backend.modules.customer.domain.entities.types.CustomerId;
@@ -11,8 +13,12 @@ import com.mussarrellos.backend.modules.customer.infra.persistance.mapper.Custom
 import com.mussarrellos.backend.modules.customer.infra.persistance.repository.CustomerModelRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -22,19 +28,23 @@ public class CustomerRepositoryAdapter implements CustomerRepository {
     private final CustomerModelRepository repository;
     private final Outbox outbox;
     private final OutboxMessageFactory outboxMessageFactory;
+    private final QueryCacheEvictions queryCacheEvictions;
     private final CustomerModelMapper mapper;
 
     @Override
     public Mono<UUID> save(Customer customer) {
         log.debug("Saving client: {}", customer.getEmail());
+        List<IDomainEvent> domainEvents = List.copyOf(customer.getDomainEvents());
         return repository.save(mapper.toModel(customer))
                 .flatMap(savedClient -> {
-                    for (IDomainEvent domainEvent : customer.getDomainEvents()) {
-                        OutboxMessage outboxMessage = outboxMessageFactory.createFrom(domainEvent);
-                        outbox.add(outboxMessage);
+                    List<OutboxMessage> outboxMessages = new ArrayList<>(domainEvents.size());
+                    for (IDomainEvent domainEvent : domainEvents) {
+                        outboxMessages.add(outboxMessageFactory.createFrom(customer.getId().getValue(), domainEvent));
                     }
 
-                    return outbox.save()
+                    return outbox.save(outboxMessages)
+                            // Invalida o cache de queries já na gravação, sem esperar o relay
+                            .then(queryCacheEvictions.committed(domainEvents))
                             .thenReturn(savedClient.getId());
                 })
                 .doOnSuccess(id -> customer.clearDomainEvents())
@@ -44,19 +54,30 @@ public class CustomerRepositoryAdapter implements CustomerRepository {
     @Override
     public Mono<Customer> findById(CustomerId id) {
         return repository.findById(id.getValue())
+                .transform(Deadline::bound)
                 .map(mapper::toDomain)
                 .doOnError(e -> log.error("Error finding client by ID: {}", id.getValue(), e));
     }
 
+    @Override
+    public Flux<Customer> findAllById(Collection<CustomerId> ids) {
+        return repository.findAllById(ids.stream().map(CustomerId::getValue).toList())
+                .transform(Deadline::bound)
+                .map(mapper::toDomain)
+                .doOnError(e -> log.error("Error finding {} clients by ID", ids.size(), e));
+    }
+
     @Override
     public Mono<Customer> findByEmail(String email) {
         return repository.findByEmail(email)
+                .transform(Deadline::bound)
                 .map(mapper::toDomain);
     }
 
     @Override
     public Mono<Boolean> checkEmailUniqueness(String email) {
         return repository.existsByEmail(email)
+                .transform(Deadline::bound)
                 .map(exists -> !exists)
                 .doOnError(e -> log.error("Error checking email uniqueness: {}", email, e));
     }
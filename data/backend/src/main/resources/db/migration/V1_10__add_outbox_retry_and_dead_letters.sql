@@ -0,0 +1,29 @@
+-- Agenda de retentativas persistente: falhas não voltam a ocupar o lote antes de next_attempt_at
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS last_error TEXT;
+
+-- Mensagens que esgotaram as tentativas saem da outbox e ficam aqui até serem reenfileiradas
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+    id UUID PRIMARY KEY,
+    aggregate_id UUID,
+    occurred_on TIMESTAMP NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    payload_format VARCHAR(16) NOT NULL,
+    compressed BOOLEAN NOT NULL,
+    data JSONB,
+    data_binary BYTEA,
+    attempts INTEGER NOT NULL,
+    last_error TEXT,
+    dead_lettered_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_dead_letters_dead_lettered_date
+ON outbox_dead_letters (dead_lettered_date DESC);
+
+COMMENT ON COLUMN outbox_messages.attempts IS 'Número de tentativas de publicação que falharam';
+COMMENT ON COLUMN outbox_messages.next_attempt_at IS 'Momento a partir do qual a mensagem pode ser reservada de novo, NULL se imediatamente';
+COMMENT ON COLUMN outbox_messages.last_error IS 'Erro da última tentativa de publicação';
+COMMENT ON TABLE outbox_dead_letters IS 'Mensagens da outbox que esgotaram as tentativas de publicação';
+COMMENT ON COLUMN outbox_dead_letters.dead_lettered_date IS 'Data e hora em que a mensagem foi movida para esta tabela';
+COMMENT ON INDEX idx_outbox_dead_letters_dead_lettered_date IS 'Índice para listar as mensagens mortas mais recentes';
@@ -0,0 +1,11 @@
+-- Chaves de idempotência passam a ser por principal e guardam o hash do payload que as reservou
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS scope VARCHAR(255) NOT NULL DEFAULT 'anonymous';
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS request_hash CHAR(64);
+ALTER TABLE idempotency_keys ALTER COLUMN scope DROP DEFAULT;
+
+-- A mesma Idempotency-Key pode ser usada por principais diferentes
+ALTER TABLE idempotency_keys DROP CONSTRAINT IF EXISTS idempotency_keys_pkey;
+ALTER TABLE idempotency_keys ADD PRIMARY KEY (scope, key);
+
+COMMENT ON COLUMN idempotency_keys.scope IS 'Principal que enviou a requisição; anonymous quando não autenticada';
+COMMENT ON COLUMN idempotency_keys.request_hash IS 'SHA-256 do payload do comando; repetições com outro payload são recusadas';
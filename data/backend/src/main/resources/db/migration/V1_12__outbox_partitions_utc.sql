@@ -0,0 +1,114 @@
+-- Partições da outbox em UTC e com colunas explícitas.
+-- occurred_on passa a ser gravado em UTC pela aplicação; os limites das partições e da retenção
+-- são calculados também em UTC, sem depender do fuso da sessão (CURRENT_DATE).
+-- A cópia entre a partição padrão e a nova partição lista as colunas: SELECT * dependia de as
+-- duas tabelas terem exatamente a mesma ordem de colunas.
+
+CREATE OR REPLACE FUNCTION create_outbox_partitions(from_date DATE, days INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_day DATE;
+    partition_name TEXT;
+    created_count INTEGER := 0;
+BEGIN
+    FOR i IN 0..days LOOP
+        partition_day := from_date + i;
+        partition_name := 'outbox_messages_p' || to_char(partition_day, 'YYYYMMDD');
+
+        IF to_regclass(partition_name) IS NULL THEN
+            -- Linhas do dia que caíram na partição padrão impedem a criação; são movidas para a nova partição
+            CREATE TEMP TABLE outbox_messages_moving AS
+            SELECT id, aggregate_id, occurred_on, type, payload_format, compressed, data, data_binary,
+                   processed_date, claimed_by, claimed_until, attempts, next_attempt_at, last_error
+            FROM outbox_messages_default
+            WHERE occurred_on >= partition_day AND occurred_on < partition_day + 1;
+
+            DELETE FROM outbox_messages_default
+            WHERE occurred_on >= partition_day AND occurred_on < partition_day + 1;
+
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF outbox_messages FOR VALUES FROM (%L) TO (%L)',
+                partition_name, partition_day::TIMESTAMP, (partition_day + 1)::TIMESTAMP);
+
+            INSERT INTO outbox_messages (id, aggregate_id, occurred_on, type, payload_format, compressed, data,
+                                         data_binary, processed_date, claimed_by, claimed_until, attempts,
+                                         next_attempt_at, last_error)
+            SELECT id, aggregate_id, occurred_on, type, payload_format, compressed, data,
+                   data_binary, processed_date, claimed_by, claimed_until, attempts,
+                   next_attempt_at, last_error
+            FROM outbox_messages_moving;
+            DROP TABLE outbox_messages_moving;
+
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION drop_expired_outbox_partitions(retention_days INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_record RECORD;
+    has_pending BOOLEAN;
+    dropped_count INTEGER := 0;
+BEGIN
+    FOR partition_record IN
+        SELECT child.relname AS name
+        FROM pg_inherits
+        JOIN pg_class parent ON pg_inherits.inhparent = parent.oid
+        JOIN pg_class child ON pg_inherits.inhrelid = child.oid
+        WHERE parent.relname = 'outbox_messages'
+          AND child.relname ~ '^outbox_messages_p[0-9]{8}$'
+          -- Limite superior da partição (dia seguinte) anterior ao início da retenção, em UTC
+          AND to_date(substring(child.relname FROM '[0-9]{8}$'), 'YYYYMMDD') + 1
+              <= (now() AT TIME ZONE 'UTC')::DATE - retention_days
+    LOOP
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE processed_date IS NULL)', partition_record.name)
+            INTO has_pending;
+
+        IF has_pending THEN
+            RAISE WARNING 'Partição % mantida: ainda possui mensagens pendentes', partition_record.name;
+        ELSE
+            EXECUTE format('DROP TABLE %I', partition_record.name);
+            dropped_count := dropped_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN dropped_count;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION maintain_outbox_partitions(days_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    config_record RECORD;
+    dropped_count INTEGER := 0;
+BEGIN
+    -- Várias instâncias podem agendar a manutenção ao mesmo tempo
+    PERFORM pg_advisory_xact_lock(hashtext('maintain_outbox_partitions'));
+
+    PERFORM create_outbox_partitions((now() AT TIME ZONE 'UTC')::DATE, days_ahead);
+
+    SELECT * INTO config_record FROM outbox_retention_config LIMIT 1;
+
+    IF config_record.enabled THEN
+        dropped_count := drop_expired_outbox_partitions(config_record.retention_days);
+
+        -- A partição padrão só recebe exceções, então o DELETE aqui é pequeno
+        DELETE FROM outbox_messages_default
+        WHERE processed_date IS NOT NULL
+          AND processed_date < ((now() AT TIME ZONE 'UTC') - (config_record.retention_days || ' days')::INTERVAL);
+
+        UPDATE outbox_retention_config
+        SET last_cleanup_date = CURRENT_TIMESTAMP
+        WHERE id = config_record.id;
+    END IF;
+
+    RETURN dropped_count;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON COLUMN outbox_messages.occurred_on IS 'Data e hora (UTC) em que o evento ocorreu; chave de partição';
+COMMENT ON COLUMN outbox_messages.processed_date IS 'Data e hora (UTC) em que a mensagem foi processada, NULL se ainda não foi';
@@ -0,0 +1,11 @@
+-- A reserva verifica, para cada candidata, se o agregado tem mensagem pendente anterior a ela
+-- (aggregate_id, processed_date IS NULL e occurred_on < candidata). Com occurred_on no índice a
+-- verificação vira uma busca por faixa em vez de reler todas as pendentes do agregado.
+-- Criado na tabela particionada: vale para as partições existentes e para as criadas depois.
+DROP INDEX IF EXISTS idx_outbox_messages_pending_aggregate;
+
+CREATE INDEX idx_outbox_messages_pending_aggregate
+ON outbox_messages (aggregate_id, occurred_on)
+WHERE processed_date IS NULL;
+
+COMMENT ON INDEX idx_outbox_messages_pending_aggregate IS 'Índice para a reserva ordenada por agregado';
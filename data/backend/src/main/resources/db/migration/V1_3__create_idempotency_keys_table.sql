@@ -0,0 +1,23 @@
+-- Tabela de chaves de idempotência dos comandos
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    key VARCHAR(512) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    result_type VARCHAR(255),
+    result TEXT,
+    locked_until TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Índice para a limpeza das chaves expiradas
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at
+ON idempotency_keys (expires_at);
+
+-- Comentários na tabela e colunas
+COMMENT ON TABLE idempotency_keys IS 'Resultados de comandos idempotentes, indexados pelo tipo do comando e pela Idempotency-Key';
+COMMENT ON COLUMN idempotency_keys.key IS 'Nome do tipo do comando e Idempotency-Key enviada pelo cliente';
+COMMENT ON COLUMN idempotency_keys.status IS 'PROCESSING enquanto o comando executa, COMPLETED depois';
+COMMENT ON COLUMN idempotency_keys.result_type IS 'Classe do resultado; nula para comandos sem resultado';
+COMMENT ON COLUMN idempotency_keys.result IS 'Resultado serializado em JSON';
+COMMENT ON COLUMN idempotency_keys.locked_until IS 'Fim da reserva de uma execução em andamento';
+COMMENT ON COLUMN idempotency_keys.expires_at IS 'Data e hora a partir da qual a chave pode ser reutilizada';
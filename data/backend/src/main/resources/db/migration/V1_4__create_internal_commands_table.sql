@@ -0,0 +1,35 @@
+-- Tabela de comandos internos executados de forma assíncrona
+CREATE TABLE IF NOT EXISTS internal_commands (
+    id UUID PRIMARY KEY,
+    type VARCHAR(255) NOT NULL,
+    data TEXT,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    max_attempts INT NOT NULL,
+    enqueued_date TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    locked_until TIMESTAMP,
+    processed_date TIMESTAMP,
+    result TEXT,
+    error TEXT
+);
+
+-- Índice para buscar rapidamente os comandos prontos para execução
+CREATE INDEX IF NOT EXISTS idx_internal_commands_pending
+ON internal_commands (enqueued_date)
+WHERE status IN ('PENDING', 'PROCESSING');
+
+-- Comentários na tabela e colunas
+COMMENT ON TABLE internal_commands IS 'Fila de comandos aceitos com 202 e executados pelos workers';
+COMMENT ON COLUMN internal_commands.id IS 'Identificador do comando, usado na URL de status';
+COMMENT ON COLUMN internal_commands.type IS 'Tipo/classe do comando';
+COMMENT ON COLUMN internal_commands.data IS 'Comando serializado em JSON; apagado ao final do processamento';
+COMMENT ON COLUMN internal_commands.status IS 'PENDING, PROCESSING, PROCESSED ou FAILED';
+COMMENT ON COLUMN internal_commands.attempts IS 'Quantidade de tentativas de execução';
+COMMENT ON COLUMN internal_commands.max_attempts IS 'Tentativas permitidas antes de marcar como FAILED';
+COMMENT ON COLUMN internal_commands.enqueued_date IS 'Data e hora em que o comando foi aceito';
+COMMENT ON COLUMN internal_commands.next_attempt_at IS 'Data e hora a partir da qual o comando pode ser executado';
+COMMENT ON COLUMN internal_commands.locked_until IS 'Fim da reserva do worker que está executando o comando';
+COMMENT ON COLUMN internal_commands.processed_date IS 'Data e hora do término, NULL se ainda não terminou';
+COMMENT ON COLUMN internal_commands.result IS 'Resultado serializado em JSON';
+COMMENT ON COLUMN internal_commands.error IS 'Erro da última tentativa';
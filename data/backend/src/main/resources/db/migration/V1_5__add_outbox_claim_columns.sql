@@ -0,0 +1,13 @@
+-- Concessão de processamento: o worker que reservou a mensagem e até quando
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(100);
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
+
+-- Índice para a reserva de lotes: pendentes em ordem de ocorrência, com o fim da concessão
+-- disponível para o filtro sem acessar a tabela
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_claimable
+ON outbox_messages (occurred_on, claimed_until)
+WHERE processed_date IS NULL;
+
+COMMENT ON COLUMN outbox_messages.claimed_by IS 'Identificador do worker que reservou a mensagem, NULL se livre';
+COMMENT ON COLUMN outbox_messages.claimed_until IS 'Fim da concessão; depois disso a mensagem pode ser reservada por outro worker';
+COMMENT ON INDEX idx_outbox_messages_claimable IS 'Índice para a reserva de lotes pendentes pelos workers do outbox';
@@ -0,0 +1,17 @@
+-- Notifica o relay do outbox a cada INSERT; um único aviso por comando, mesmo em INSERTs de várias linhas
+CREATE OR REPLACE FUNCTION notify_outbox_messages()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('outbox_messages', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_outbox_messages_notify ON outbox_messages;
+
+CREATE TRIGGER trg_outbox_messages_notify
+AFTER INSERT ON outbox_messages
+FOR EACH STATEMENT
+EXECUTE FUNCTION notify_outbox_messages();
+
+COMMENT ON FUNCTION notify_outbox_messages() IS 'Envia NOTIFY no canal outbox_messages quando novas mensagens são gravadas';
@@ -0,0 +1,168 @@
+-- Converte outbox_messages em tabela particionada por dia em occurred_on.
+-- A retenção passa a remover partições inteiras em vez de apagar linha a linha.
+
+ALTER TABLE outbox_messages RENAME TO outbox_messages_legacy;
+ALTER TABLE outbox_messages_legacy RENAME CONSTRAINT outbox_messages_pkey TO outbox_messages_legacy_pkey;
+DROP TRIGGER IF EXISTS trg_outbox_messages_notify ON outbox_messages_legacy;
+
+-- A chave de partição precisa fazer parte da chave primária
+CREATE TABLE outbox_messages (
+    id UUID NOT NULL,
+    occurred_on TIMESTAMP NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    data TEXT NOT NULL,
+    processed_date TIMESTAMP,
+    claimed_by VARCHAR(100),
+    claimed_until TIMESTAMP,
+    PRIMARY KEY (id, occurred_on)
+) PARTITION BY RANGE (occurred_on);
+
+-- Recebe linhas fora das partições diárias existentes (datas muito antigas ou muito à frente)
+CREATE TABLE outbox_messages_default PARTITION OF outbox_messages DEFAULT;
+
+-- Cria as partições diárias de from_date até from_date + days; retorna quantas foram criadas
+CREATE OR REPLACE FUNCTION create_outbox_partitions(from_date DATE, days INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_day DATE;
+    partition_name TEXT;
+    created_count INTEGER := 0;
+BEGIN
+    FOR i IN 0..days LOOP
+        partition_day := from_date + i;
+        partition_name := 'outbox_messages_p' || to_char(partition_day, 'YYYYMMDD');
+
+        IF to_regclass(partition_name) IS NULL THEN
+            -- Linhas do dia que caíram na partição padrão impedem a criação; são movidas para a nova partição
+            CREATE TEMP TABLE outbox_messages_moving AS
+            SELECT * FROM outbox_messages_default
+            WHERE occurred_on >= partition_day AND occurred_on < partition_day + 1;
+
+            DELETE FROM outbox_messages_default
+            WHERE occurred_on >= partition_day AND occurred_on < partition_day + 1;
+
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF outbox_messages FOR VALUES FROM (%L) TO (%L)',
+                partition_name, partition_day::TIMESTAMP, (partition_day + 1)::TIMESTAMP);
+
+            INSERT INTO outbox_messages SELECT * FROM outbox_messages_moving;
+            DROP TABLE outbox_messages_moving;
+
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Remove as partições diárias inteiramente fora do período de retenção.
+-- Partições que ainda têm mensagens pendentes são mantidas.
+CREATE OR REPLACE FUNCTION drop_expired_outbox_partitions(retention_days INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_record RECORD;
+    has_pending BOOLEAN;
+    dropped_count INTEGER := 0;
+BEGIN
+    FOR partition_record IN
+        SELECT child.relname AS name
+        FROM pg_inherits
+        JOIN pg_class parent ON pg_inherits.inhparent = parent.oid
+        JOIN pg_class child ON pg_inherits.inhrelid = child.oid
+        WHERE parent.relname = 'outbox_messages'
+          AND child.relname ~ '^outbox_messages_p[0-9]{8}$'
+          -- Limite superior da partição (dia seguinte) anterior ao início da retenção
+          AND to_date(substring(child.relname FROM '[0-9]{8}$'), 'YYYYMMDD') + 1
+              <= CURRENT_DATE - retention_days
+    LOOP
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE processed_date IS NULL)', partition_record.name)
+            INTO has_pending;
+
+        IF has_pending THEN
+            RAISE WARNING 'Partição % mantida: ainda possui mensagens pendentes', partition_record.name;
+        ELSE
+            EXECUTE format('DROP TABLE %I', partition_record.name);
+            dropped_count := dropped_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN dropped_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Manutenção periódica: cria as partições futuras, remove as expiradas e limpa a partição padrão.
+-- Retorna o número de partições removidas.
+CREATE OR REPLACE FUNCTION maintain_outbox_partitions(days_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    config_record RECORD;
+    dropped_count INTEGER := 0;
+BEGIN
+    -- Várias instâncias podem agendar a manutenção ao mesmo tempo
+    PERFORM pg_advisory_xact_lock(hashtext('maintain_outbox_partitions'));
+
+    PERFORM create_outbox_partitions(CURRENT_DATE, days_ahead);
+
+    SELECT * INTO config_record FROM outbox_retention_config LIMIT 1;
+
+    IF config_record.enabled THEN
+        dropped_count := drop_expired_outbox_partitions(config_record.retention_days);
+
+        -- A partição padrão só recebe exceções, então o DELETE aqui é pequeno
+        DELETE FROM outbox_messages_default
+        WHERE processed_date IS NOT NULL
+          AND processed_date < (CURRENT_TIMESTAMP - (config_record.retention_days || ' days')::INTERVAL);
+
+        UPDATE outbox_retention_config
+        SET last_cleanup_date = CURRENT_TIMESTAMP
+        WHERE id = config_record.id;
+    END IF;
+
+    RETURN dropped_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partições para o período de retenção atual e a próxima semana
+SELECT create_outbox_partitions(
+    CURRENT_DATE - (SELECT retention_days FROM outbox_retention_config LIMIT 1),
+    (SELECT retention_days FROM outbox_retention_config LIMIT 1) + 7);
+
+-- Copia as mensagens ainda relevantes; pendentes antigas caem na partição padrão
+INSERT INTO outbox_messages (id, occurred_on, type, data, processed_date, claimed_by, claimed_until)
+SELECT id, occurred_on, type, data, processed_date, claimed_by, claimed_until
+FROM outbox_messages_legacy
+WHERE processed_date IS NULL
+   OR occurred_on >= CURRENT_DATE - (SELECT retention_days FROM outbox_retention_config LIMIT 1);
+
+DROP TABLE outbox_messages_legacy;
+
+-- Índices particionados, criados depois da remoção dos índices homônimos da tabela antiga
+CREATE INDEX idx_outbox_messages_claimable
+ON outbox_messages (occurred_on, claimed_until)
+WHERE processed_date IS NULL;
+
+CREATE INDEX idx_outbox_messages_type
+ON outbox_messages (type);
+
+-- Substituída pela manutenção de partições
+DROP FUNCTION IF EXISTS cleanup_processed_outbox_messages();
+
+-- Triggers de INSERT em tabelas particionadas valem para todas as partições
+CREATE TRIGGER trg_outbox_messages_notify
+AFTER INSERT ON outbox_messages
+FOR EACH STATEMENT
+EXECUTE FUNCTION notify_outbox_messages();
+
+COMMENT ON TABLE outbox_messages IS 'Armazena mensagens a serem publicadas, parte do padrão Outbox (particionada por dia em occurred_on)';
+COMMENT ON COLUMN outbox_messages.id IS 'Identificador único da mensagem';
+COMMENT ON COLUMN outbox_messages.occurred_on IS 'Data e hora em que o evento ocorreu; chave de partição';
+COMMENT ON COLUMN outbox_messages.type IS 'Tipo/classe do evento';
+COMMENT ON COLUMN outbox_messages.data IS 'Dados serializados do evento em formato JSON';
+COMMENT ON COLUMN outbox_messages.processed_date IS 'Data e hora em que a mensagem foi processada, NULL se ainda não foi';
+COMMENT ON COLUMN outbox_messages.claimed_by IS 'Identificador do worker que reservou a mensagem, NULL se livre';
+COMMENT ON COLUMN outbox_messages.claimed_until IS 'Fim da concessão; depois disso a mensagem pode ser reservada por outro worker';
+COMMENT ON TABLE outbox_messages_default IS 'Partição padrão para mensagens fora das partições diárias';
+COMMENT ON FUNCTION create_outbox_partitions(DATE, INTEGER) IS 'Cria as partições diárias da outbox que ainda não existem';
+COMMENT ON FUNCTION drop_expired_outbox_partitions(INTEGER) IS 'Remove partições diárias da outbox fora do período de retenção e sem pendências';
+COMMENT ON FUNCTION maintain_outbox_partitions(INTEGER) IS 'Manutenção periódica das partições da outbox';
@@ -0,0 +1,10 @@
+-- Agregado de origem da mensagem; o relay mantém a ordem de publicação por agregado
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS aggregate_id UUID;
+
+-- Índice para verificar se um agregado já tem mensagem reservada e ainda não processada
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_pending_aggregate
+ON outbox_messages (aggregate_id)
+WHERE processed_date IS NULL;
+
+COMMENT ON COLUMN outbox_messages.aggregate_id IS 'Identificador do agregado que originou o evento, NULL se não houver';
+COMMENT ON INDEX idx_outbox_messages_pending_aggregate IS 'Índice para a reserva ordenada por agregado';
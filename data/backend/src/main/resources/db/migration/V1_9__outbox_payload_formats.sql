@@ -0,0 +1,19 @@
+-- Payload JSON passa a ser jsonb; formatos binários (Smile, CBOR) e payloads comprimidos vão para bytea
+ALTER TABLE outbox_messages ALTER COLUMN data TYPE JSONB USING data::jsonb;
+ALTER TABLE outbox_messages ALTER COLUMN data DROP NOT NULL;
+
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS data_binary BYTEA;
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS payload_format VARCHAR(16) NOT NULL DEFAULT 'json';
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS compressed BOOLEAN NOT NULL DEFAULT false;
+
+-- Exatamente uma das colunas de payload é preenchida
+ALTER TABLE outbox_messages ADD CONSTRAINT chk_outbox_messages_payload
+CHECK ((data IS NULL) <> (data_binary IS NULL));
+
+-- Payloads binários já chegam compactos (ou com gzip); evita recomprimir no TOAST
+ALTER TABLE outbox_messages ALTER COLUMN data_binary SET STORAGE EXTERNAL;
+
+COMMENT ON COLUMN outbox_messages.data IS 'Dados do evento em JSON (jsonb), NULL quando o payload é binário';
+COMMENT ON COLUMN outbox_messages.data_binary IS 'Dados do evento em formato binário ou comprimido, NULL quando o payload é jsonb';
+COMMENT ON COLUMN outbox_messages.payload_format IS 'Formato de serialização do payload: json, smile ou cbor';
+COMMENT ON COLUMN outbox_messages.compressed IS 'Indica se o payload foi comprimido com gzip';
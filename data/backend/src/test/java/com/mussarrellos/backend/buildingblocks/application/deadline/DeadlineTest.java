@@ -0,0 +1,44 @@
+package com.mussarrellos.backend.buildingblocks.application.deadline;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+
+    @Test
+    void fluxIsCancelledWhenTheDeadlineExpiresMidStream() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<Long> ticks = Flux.interval(Duration.ofMillis(20))
+                .doOnCancel(() -> cancelled.set(true));
+
+        StepVerifier.create(Deadline.bound(ticks)
+                        .contextWrite(Deadline.after(Duration.ofMillis(150))::putInto))
+                .expectNextCount(3)
+                .thenConsumeWhile(tick -> true)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void fluxFinishingBeforeTheDeadlineCompletesNormally() {
+        StepVerifier.create(Deadline.bound(Flux.just(1, 2, 3))
+                        .contextWrite(Deadline.after(Duration.ofSeconds(5))::putInto))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+    }
+
+    @Test
+    void fluxWithoutDeadlineIsNotBounded() {
+        StepVerifier.create(Deadline.bound(Flux.just(1, 2)))
+                .expectNext(1, 2)
+                .verifyComplete();
+    }
+}
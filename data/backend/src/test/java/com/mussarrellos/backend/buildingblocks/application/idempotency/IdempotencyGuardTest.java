@@ -0,0 +1,175 @@
+package com.mussarrellos.backend.buildingblocks.application.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyGuardTest {
+
+    private static final String OPERATION = "charge";
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore();
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final IdempotencyGuard guard = newGuard();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void repeatedCommandReplaysTheStoredResult() {
+        assertThat(send(new Charge(10), "key-1", null)).isEqualTo("execution #1");
+        assertThat(send(new Charge(10), "key-1", null)).isEqualTo("execution #1");
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void replayIsServedByTheStoreWhenTheLocalCacheIsEmpty() {
+        send(new Charge(10), "key-1", null);
+        IdempotencyGuard otherInstance = newGuard();
+
+        String replayed = otherInstance.execute(new Charge(10), OPERATION, this::execute)
+                .contextWrite(new IdempotencyKey("key-1")::putInto)
+                .block();
+
+        assertThat(replayed).isEqualTo("execution #1");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void sameKeyWithAnotherPayloadIsRejected() {
+        send(new Charge(10), "key-1", null);
+
+        StepVerifier.create(handle(new Charge(99), "key-1", null))
+                .expectError(IdempotencyKeyMismatchException.class)
+                .verify();
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void mismatchIsDetectedAgainstTheStoreToo() {
+        send(new Charge(10), "key-1", null);
+        IdempotencyGuard otherInstance = newGuard();
+
+        StepVerifier.create(otherInstance.execute(new Charge(99), OPERATION, this::execute)
+                        .contextWrite(new IdempotencyKey("key-1")::putInto))
+                .expectErrorSatisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode())
+                        .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY))
+                .verify();
+    }
+
+    @Test
+    void keysAreScopedToThePrincipal() {
+        assertThat(send(new Charge(10), "key-1", "alice")).isEqualTo("execution #1");
+        assertThat(send(new Charge(10), "key-1", "bob")).isEqualTo("execution #2");
+        assertThat(send(new Charge(10), "key-1", "alice")).isEqualTo("execution #1");
+
+        assertThat(store.entries.keySet()).extracting(ScopedKey::scope).containsExactlyInAnyOrder("alice", "bob");
+    }
+
+    @Test
+    void localCacheDoesNotOutliveTheCommandTtl() {
+        send(new ShortLived(10), "key-1", null);
+        store.expireAll();
+
+        send(new ShortLived(10), "key-1", null);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    private IdempotencyGuard newGuard() {
+        return new IdempotencyGuard(store, objectMapper, Duration.ofMinutes(5), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void operationsDoNotShareTheSameKey() {
+        assertThat(handle(new Charge(10), "charge", "key-1", null).block()).isEqualTo("execution #1");
+        assertThat(handle(new Charge(10), "charge#deferred", "key-1", null).block()).isEqualTo("execution #2");
+        assertThat(handle(new Charge(10), "charge#deferred", "key-1", null).block()).isEqualTo("execution #2");
+    }
+
+    @Test
+    void requestWithoutIdempotencyKeyAlwaysExecutes() {
+        guard.execute(new Charge(10), OPERATION, this::execute).block();
+        guard.execute(new Charge(10), OPERATION, this::execute).block();
+
+        assertThat(executions).hasValue(2);
+        assertThat(store.entries).isEmpty();
+    }
+
+    private String send(Object command, String key, String principal) {
+        return handle(command, key, principal).block();
+    }
+
+    private Mono<String> handle(Object command, String key, String principal) {
+        return handle(command, OPERATION, key, principal);
+    }
+
+    private Mono<String> handle(Object command, String operation, String key, String principal) {
+        Mono<String> result = guard.execute(command, operation, this::execute)
+                .contextWrite(new IdempotencyKey(key)::putInto);
+        return principal == null
+                ? result
+                : result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        UsernamePasswordAuthenticationToken.authenticated(principal, null, List.of())));
+    }
+
+    private Mono<String> execute() {
+        return Mono.fromSupplier(() -> "execution #" + executions.incrementAndGet());
+    }
+
+    @Idempotent
+    public record Charge(int amount) {}
+
+    @Idempotent(ttlSeconds = 0)
+    public record ShortLived(int amount) {}
+
+    /**
+     * Store em memória com a mesma regra de reserva do {@code R2dbcIdempotencyStore}.
+     */
+    static class InMemoryIdempotencyStore implements IdempotencyStore {
+
+        final Map<ScopedKey, IdempotencyRecord> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<Boolean> claim(ScopedKey key, String requestHash, Duration claimTimeout, Duration ttl) {
+            return Mono.fromSupplier(() -> entries.putIfAbsent(key, IdempotencyRecord.processing(requestHash, ttl)) == null);
+        }
+
+        @Override
+        public Mono<IdempotencyRecord> find(ScopedKey key) {
+            return Mono.justOrEmpty(entries.get(key));
+        }
+
+        @Override
+        public Mono<Void> complete(ScopedKey key, IdempotencyRecord record) {
+            return Mono.fromRunnable(() -> entries.put(key, record));
+        }
+
+        @Override
+        public Mono<Void> release(ScopedKey key) {
+            return Mono.fromRunnable(() -> entries.remove(key));
+        }
+
+        @Override
+        public Mono<Long> deleteExpired() {
+            return Mono.just(0L);
+        }
+
+        void expireAll() {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.mussarrellos.backend.buildingblocks.application.internalcommands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InternalCommandPayloadCipherTest {
+
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String PAYLOAD = "{\"email\":\"ana@mail.com\",\"password\":\"S3nha-Forte!\"}";
+
+    private final InternalCommandPayloadCipher cipher = new InternalCommandPayloadCipher(KEY);
+
+    @Test
+    void storedPayloadDoesNotContainThePassword() {
+        String stored = cipher.encrypt(PAYLOAD);
+
+        assertThat(stored).doesNotContain("S3nha-Forte!").doesNotContain("ana@mail.com");
+        assertThat(cipher.decrypt(stored)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void samePayloadIsEncryptedWithAFreshIv() {
+        assertThat(cipher.encrypt(PAYLOAD)).isNotEqualTo(cipher.encrypt(PAYLOAD));
+    }
+
+    @Test
+    void payloadEnqueuedBeforeEncryptionIsReadAsIs() {
+        assertThat(cipher.decrypt(PAYLOAD)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void anotherKeyCannotReadThePayload() {
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        InternalCommandPayloadCipher other = new InternalCommandPayloadCipher(Base64.getEncoder().encodeToString(otherKey));
+
+        assertThatThrownBy(() -> other.decrypt(cipher.encrypt(PAYLOAD))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsKeysThatAreNotAesSized() {
+        assertThatThrownBy(() -> new InternalCommandPayloadCipher(Base64.getEncoder().encodeToString(new byte[10])))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mussarrellos.backend.buildingblocks.application.mediator;
+
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestPipeline;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import com.mussarrellos.backend.buildingblocks.application.queries.QueryHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpringMediatorBatchTest {
+
+    private final ValueHandler handler = new ValueHandler();
+    private final ShortCircuitBehavior shortCircuit = new ShortCircuitBehavior();
+    private SpringMediator mediator;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("valueHandler", handler);
+        beanFactory.registerSingleton("shortCircuitBehavior", shortCircuit);
+
+        HandlerRegistry registry = new HandlerRegistry(beanFactory);
+        registry.afterSingletonsInstantiated();
+
+        mediator = new SpringMediator(registry, new RequestPipeline(beanFactory.getBeanProvider(PipelineBehavior.class)));
+        ReflectionTestUtils.setField(mediator, "batchMaxSize", 256);
+        ReflectionTestUtils.setField(mediator, "batchConcurrency", 8);
+    }
+
+    @Test
+    void keepsOneResultPerMessageInInputOrder() {
+        List<BatchResult<String>> results = mediator.sendAllQueries(Flux.just(
+                        new FindValue(2), new FindValue(1), new FindValue(4), new FindValue(2)))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(BatchResult::value).containsExactly("v2", null, "v4", "v2");
+        assertThat(results).noneMatch(BatchResult::isFailure);
+        assertThat(handler.batches).containsExactly(List.of(new FindValue(2), new FindValue(1), new FindValue(4)));
+    }
+
+    @Test
+    void messagesResolvedByABehaviorSkipTheBatchCall() {
+        shortCircuit.cached.put(new FindValue(4), "cached");
+
+        List<BatchResult<String>> results = mediator.sendAllQueries(Flux.just(
+                        new FindValue(2), new FindValue(4), new FindValue(6)))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(BatchResult::value).containsExactly("v2", "cached", "v6");
+        assertThat(handler.batches).containsExactly(List.of(new FindValue(2), new FindValue(6)));
+        assertThat(shortCircuit.seen).contains(new FindValue(2), new FindValue(4), new FindValue(6));
+    }
+
+    @Test
+    void failureStaysInItsOwnSlot() {
+        List<BatchResult<String>> results = mediator.<String>sendAllQueries(Flux.just(
+                        new FindValue(2), new Unhandled(), new FindValue(4)))
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).value()).isEqualTo("v2");
+        assertThat(results.get(1).error()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(results.get(2).value()).isEqualTo("v4");
+    }
+
+    @Test
+    void batchCallErrorIsReportedToEveryMessageThatReachedTheHandler() {
+        handler.failBatch = true;
+
+        List<BatchResult<String>> results = mediator.sendAllQueries(Flux.just(new FindValue(2), new FindValue(4)))
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(2).allMatch(BatchResult::isFailure);
+    }
+
+    public record FindValue(int id) implements IQuery<String> {}
+
+    public record Unhandled() implements IQuery<String> {}
+
+    /**
+     * Ids pares existem; ímpares ficam fora do mapa do lote.
+     */
+    public static class ValueHandler implements QueryHandler<FindValue, String>, BatchHandler<FindValue, String> {
+
+        final List<List<FindValue>> batches = new CopyOnWriteArrayList<>();
+        volatile boolean failBatch;
+
+        @Override
+        public Mono<String> handle(FindValue query) {
+            return query.id() % 2 == 0 ? Mono.just("v" + query.id()) : Mono.empty();
+        }
+
+        @Override
+        public Mono<Map<FindValue, String>> handle(List<FindValue> queries) {
+            batches.add(List.copyOf(queries));
+            if (failBatch) return Mono.error(new IllegalStateException("falha no lote"));
+            return Mono.just(queries.stream()
+                    .filter(query -> query.id() % 2 == 0)
+                    .collect(Collectors.toMap(Function.identity(), query -> "v" + query.id())));
+        }
+    }
+
+    /**
+     * Simula um comportamento por requisição (como o cache) que responde sem chegar ao handler.
+     */
+    static class ShortCircuitBehavior implements PipelineBehavior {
+
+        final Map<Object, Object> cached = new ConcurrentHashMap<>();
+        final List<Object> seen = new CopyOnWriteArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> Mono<R> handle(Object request, Object handler, RequestHandlerDelegate<R> next) {
+            seen.add(request);
+            Object hit = cached.get(request);
+            return hit != null ? Mono.just((R) hit) : next.handle();
+        }
+    }
+}
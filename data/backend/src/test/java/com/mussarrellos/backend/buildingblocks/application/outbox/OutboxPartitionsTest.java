@@ -0,0 +1,89 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxPartitionsTest {
+
+    private static EmbeddedOutboxDatabase database;
+
+    private OutboxRelayFixture fixture;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        database = new EmbeddedOutboxDatabase();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        database.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database.reset();
+        fixture = new OutboxRelayFixture(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionAreMovedWithEveryColumn() throws Exception {
+        database.execute("""
+                INSERT INTO outbox_messages (id, aggregate_id, occurred_on, type, payload_format, compressed, data,
+                                             data_binary, processed_date, claimed_by, claimed_until, attempts,
+                                             next_attempt_at, last_error)
+                VALUES ('00000000-0000-0000-0000-000000000001', '00000000-0000-0000-0000-0000000000aa',
+                        '2099-03-04 10:00', 'TestEvent', 'cbor', true, NULL, '\\x0102', NULL, 'worker-a',
+                        '2099-03-04 10:01', 2, '2099-03-04 10:05', 'falha')
+                """);
+        assertThat(fixture.rows("SELECT id FROM outbox_messages_default")).hasSize(1);
+
+        database.execute("SELECT create_outbox_partitions('2099-03-04', 0)");
+
+        assertThat(fixture.rows("SELECT id FROM outbox_messages_default")).isEmpty();
+        List<Map<String, Object>> moved = fixture.rows(
+                "SELECT aggregate_id::text AS aggregate_id, payload_format, compressed, data_binary, claimed_by, " +
+                        "attempts, last_error FROM outbox_messages_p20990304");
+        assertThat(moved).hasSize(1);
+        assertThat(moved.get(0))
+                .containsEntry("aggregate_id", "00000000-0000-0000-0000-0000000000aa")
+                .containsEntry("payload_format", "cbor")
+                .containsEntry("compressed", true)
+                .containsEntry("claimed_by", "worker-a")
+                .containsEntry("attempts", 2)
+                .containsEntry("last_error", "falha");
+    }
+
+    @Test
+    void newPartitionsGetThePendingAggregateIndex() throws Exception {
+        database.execute("SELECT create_outbox_partitions('2099-03-05', 0)");
+
+        assertThat(fixture.rows("SELECT indexdef FROM pg_indexes WHERE tablename = 'outbox_messages_p20990305'"))
+                .extracting(row -> (String) row.get("indexdef"))
+                .anySatisfy(definition -> assertThat(definition)
+                        .contains("(aggregate_id, occurred_on)")
+                        .contains("WHERE (processed_date IS NULL)"));
+    }
+
+    @Test
+    void maintenanceCreatesTodaysPartitionInUtc() throws Exception {
+        database.execute("SELECT maintain_outbox_partitions(0)");
+
+        String utcToday = (String) fixture.rows(
+                "SELECT to_char((now() AT TIME ZONE 'UTC')::date, 'YYYYMMDD') AS day").get(0).get("day");
+        assertThat(fixture.rows("SELECT to_regclass('outbox_messages_p" + utcToday + "')::text AS partition").get(0))
+                .containsEntry("partition", "outbox_messages_p" + utcToday);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxRelayFixture.Relay;
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxRelayFixture.TestEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxPayloadRoundTripTest {
+
+    private static EmbeddedOutboxDatabase database;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        database = new EmbeddedOutboxDatabase();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        database.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database.reset();
+    }
+
+    @ParameterizedTest(name = "{0}, gzip={1}")
+    @CsvSource({
+            "json,  false",
+            "json,  true",
+            "smile, false",
+            "smile, true",
+            "cbor,  false",
+            "cbor,  true"
+    })
+    void payloadWrittenByTheOutboxIsStoredAndDecodedByTheRelay(String format, boolean compressed) {
+        // Limiar de 1 byte comprime qualquer payload
+        try (OutboxRelayFixture fixture = new OutboxRelayFixture(database, format, compressed ? 1 : 0)) {
+            UUID aggregateId = UUID.randomUUID();
+            List<TestEvent> saved = fixture.save(aggregateId, "pedido-" + format + "-ção");
+
+            Map<String, Object> row = fixture.rows(
+                    "SELECT payload_format, compressed, data IS NOT NULL AS has_data, " +
+                            "data_binary IS NOT NULL AS has_data_binary FROM outbox_messages").get(0);
+            boolean storedAsJson = format.equals(JacksonOutboxPayloadCodec.JSON) && !compressed;
+            assertThat(row)
+                    .containsEntry("payload_format", format)
+                    .containsEntry("compressed", compressed)
+                    .containsEntry("has_data", storedAsJson)
+                    .containsEntry("has_data_binary", !storedAsJson);
+
+            Relay relay = fixture.relay("worker-a", 1, 60, event -> {});
+            assertThat(relay.poll(10)).isEqualTo(1);
+
+            assertThat(relay.published()).singleElement().satisfies(event -> {
+                assertThat(event.getLabel()).isEqualTo(saved.get(0).getLabel());
+                assertThat(event.getId()).isEqualTo(saved.get(0).getId());
+            });
+            assertThat(fixture.rows("SELECT id FROM outbox_messages WHERE processed_date IS NULL")).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import com.mussarrellos.backend.buildingblocks.application.outbox.OutboxRelayFixture.Relay;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class OutboxProcessorServiceTest {
+
+    private static EmbeddedOutboxDatabase database;
+
+    private OutboxRelayFixture fixture;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        database = new EmbeddedOutboxDatabase();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        database.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database.reset();
+        fixture = new OutboxRelayFixture(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void concurrentWorkersClaimDisjointMessages() {
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < 300; i++) labels.add("m" + i);
+        fixture.save(null, labels.toArray(String[]::new));
+
+        Relay first = fixture.relay("worker-a", 4, 60, event -> {});
+        Relay second = fixture.relay("worker-b", 4, 60, event -> {});
+
+        for (int round = 0; round < 10 && first.published().size() + second.published().size() < 300; round++) {
+            Mono.zip(Mono.defer(() -> first.service().pollBatch(100)).subscribeOn(Schedulers.parallel()),
+                            Mono.defer(() -> second.service().pollBatch(100)).subscribeOn(Schedulers.parallel()))
+                    .block(Duration.ofSeconds(30));
+        }
+
+        Set<String> byFirst = new HashSet<>(first.labels());
+        Set<String> bySecond = new HashSet<>(second.labels());
+        assertThat(first.labels()).doesNotHaveDuplicates().isNotEmpty();
+        assertThat(second.labels()).doesNotHaveDuplicates().isNotEmpty();
+        assertThat(byFirst).doesNotContainAnyElementsOf(bySecond);
+        assertThat(first.labels().size() + second.labels().size()).isEqualTo(300);
+        assertThat(fixture.rows("SELECT id FROM outbox_messages WHERE processed_date IS NULL")).isEmpty();
+    }
+
+    @Test
+    void slowLaneRenewsItsLeaseSoAnotherWorkerCannotTakeItsMessages() throws Exception {
+        fixture.save(null, "m1", "m2", "m3", "m4");
+        Relay slow = fixture.relay("worker-slow", 1, 1, event -> sleep(Duration.ofMillis(700)));
+        Relay other = fixture.relay("worker-other", 1, 1, event -> {});
+
+        CompletableFuture<Integer> slowPoll = slow.service().pollBatch(10).toFuture();
+        while (!slowPoll.isDone()) {
+            other.poll(10);
+            sleep(Duration.ofMillis(150));
+        }
+
+        assertThat(slowPoll.get()).isEqualTo(4);
+        assertThat(slow.labels()).containsExactly("m1", "m2", "m3", "m4");
+        assertThat(other.published()).isEmpty();
+    }
+
+    @Test
+    void concurrentWorkersPublishAnAggregateInOrder() {
+        UUID aggregateId = UUID.randomUUID();
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < 30; i++) labels.add("m" + i);
+        fixture.save(aggregateId, labels.toArray(String[]::new));
+
+        List<String> publishedInOrder = new CopyOnWriteArrayList<>();
+        Relay first = fixture.relay("worker-a", 4, 60, event -> publishedInOrder.add(event.getLabel()));
+        Relay second = fixture.relay("worker-b", 4, 60, event -> publishedInOrder.add(event.getLabel()));
+
+        for (int round = 0; round < 100 && publishedInOrder.size() < 30; round++) {
+            Mono.zip(Mono.defer(() -> first.service().pollBatch(4)).subscribeOn(Schedulers.parallel()),
+                            Mono.defer(() -> second.service().pollBatch(4)).subscribeOn(Schedulers.parallel()))
+                    .block(Duration.ofSeconds(30));
+        }
+
+        assertThat(publishedInOrder).containsExactlyElementsOf(labels);
+    }
+
+    @Test
+    void messagesAfterAFailureWaitForItsRetryAndAreReleased() throws Exception {
+        UUID aggregateId = UUID.randomUUID();
+        fixture.save(aggregateId, "m1", "m2", "m3");
+        AtomicBoolean failed = new AtomicBoolean();
+        Relay relay = fixture.relay("worker-a", 1, 60, event -> {
+            if (event.getLabel().equals("m1") && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("broker indisponível");
+            }
+        });
+        Relay other = fixture.relay("worker-b", 1, 60, event -> {});
+
+        relay.poll(10);
+
+        assertThat(relay.published()).isEmpty();
+        assertThat(fixture.rows("SELECT data->>'label' AS label FROM outbox_messages " +
+                "WHERE claimed_by IS NOT NULL OR claimed_until IS NOT NULL")).isEmpty();
+        assertThat(fixture.rows("SELECT attempts FROM outbox_messages WHERE data->>'label' = 'm1'").get(0))
+                .containsEntry("attempts", 1);
+
+        // m1 aguarda o backoff; m2 e m3 estão livres, mas não podem passar na frente dela
+        assertThat(other.poll(10)).isZero();
+
+        makeRetriesDue();
+        other.poll(10);
+
+        assertThat(other.labels()).containsExactly("m1", "m2", "m3");
+        assertThat(fixture.rows("SELECT id FROM outbox_messages WHERE processed_date IS NULL")).isEmpty();
+    }
+
+    @Test
+    void failedPublicationIsRetriedWithExponentialBackoff() throws Exception {
+        fixture.save(null, "m1");
+        Relay relay = fixture.relay("worker-a", 1, 60, event -> {
+            throw new IllegalStateException("broker indisponível");
+        });
+
+        relay.poll(10);
+        assertThat(attempts("m1")).isEqualTo(1);
+        assertThat(secondsUntilRetry("m1")).isCloseTo(1.0, within(0.5));
+
+        // Ainda no backoff: não é reservada de novo
+        assertThat(relay.poll(10)).isZero();
+
+        makeRetriesDue();
+        relay.poll(10);
+        assertThat(attempts("m1")).isEqualTo(2);
+        assertThat(secondsUntilRetry("m1")).isCloseTo(2.0, within(0.5));
+        assertThat(fixture.rows("SELECT last_error FROM outbox_messages").get(0).get("last_error"))
+                .asString().contains("broker indisponível");
+    }
+
+    @Test
+    void backoffIsCappedAtTheMaximumDelay() throws Exception {
+        fixture.save(null, "m1");
+        Relay relay = fixture.relay("worker-a", 1, 60, 100, event -> {
+            throw new IllegalStateException("broker indisponível");
+        });
+        database.execute("UPDATE outbox_messages SET attempts = 15");
+
+        relay.poll(10);
+
+        // 1s * 2^15 passaria de 9 horas; o teto é de 300s
+        assertThat(attempts("m1")).isEqualTo(16);
+        assertThat(secondsUntilRetry("m1")).isCloseTo(300.0, within(0.5));
+    }
+
+    @Test
+    void messageIsMovedToDeadLettersAfterTheLastAttempt() throws Exception {
+        UUID aggregateId = UUID.randomUUID();
+        fixture.save(aggregateId, "m1");
+        AtomicBoolean brokerDown = new AtomicBoolean(true);
+        Relay relay = fixture.relay("worker-a", 1, 60, event -> {
+            if (brokerDown.get()) throw new IllegalStateException("broker indisponível");
+        });
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            makeRetriesDue();
+            relay.poll(10);
+        }
+
+        assertThat(fixture.rows("SELECT id FROM outbox_messages")).isEmpty();
+        List<OutboxDeadLetter> deadLetters = new R2dbcOutboxDeadLetters(fixture.databaseClient)
+                .findRecent(10).collectList().block();
+        assertThat(deadLetters).singleElement().satisfies(deadLetter -> {
+            assertThat(deadLetter.aggregateId()).isEqualTo(aggregateId);
+            assertThat(deadLetter.attempts()).isEqualTo(3);
+            assertThat(deadLetter.lastError()).contains("broker indisponível");
+        });
+
+        // Reenfileirada, volta a ser publicada com as tentativas zeradas
+        brokerDown.set(false);
+        assertThat(new R2dbcOutboxDeadLetters(fixture.databaseClient)
+                .requeue(deadLetters.get(0).id()).block()).isTrue();
+        relay.poll(10);
+
+        assertThat(relay.labels()).containsExactly("m1");
+        assertThat(fixture.rows("SELECT id FROM outbox_dead_letters")).isEmpty();
+    }
+
+    private int attempts(String label) {
+        return (Integer) fixture.rows("SELECT attempts FROM outbox_messages WHERE data->>'label' = '" + label + "'")
+                .get(0).get("attempts");
+    }
+
+    private double secondsUntilRetry(String label) {
+        return ((Number) fixture.rows("SELECT EXTRACT(EPOCH FROM next_attempt_at - now())::float8 AS seconds " +
+                "FROM outbox_messages WHERE data->>'label' = '" + label + "'").get(0).get("seconds")).doubleValue();
+    }
+
+    private static void makeRetriesDue() throws Exception {
+        database.execute("UPDATE outbox_messages SET next_attempt_at = now() - INTERVAL '1 second' " +
+                "WHERE next_attempt_at IS NOT NULL");
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
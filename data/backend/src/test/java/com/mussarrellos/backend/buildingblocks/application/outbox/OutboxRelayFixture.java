@@ -0,0 +1,120 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mussarrellos.backend.buildingblocks.domain.events.DomainEventBase;
+import com.mussarrellos.backend.buildingblocks.domain.events.DomainEventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Relays de outbox ligados ao {@link EmbeddedOutboxDatabase}, cada um com o seu worker id e o seu
+ * próprio registro do que publicou.
+ */
+final class OutboxRelayFixture implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final OutboxPayloadSerializer serializer;
+    private final OutboxMessageFactory messageFactory;
+
+    final DatabaseClient databaseClient;
+
+    OutboxRelayFixture(EmbeddedOutboxDatabase database) {
+        this(database, JacksonOutboxPayloadCodec.JSON, 0);
+    }
+
+    /**
+     * @param compressionThreshold tamanho a partir do qual o payload é gravado com gzip; 0 desliga
+     */
+    OutboxRelayFixture(EmbeddedOutboxDatabase database, String payloadFormat, int compressionThreshold) {
+        this.pool = database.connectionPool(16);
+        this.databaseClient = DatabaseClient.create(pool);
+        this.serializer = new OutboxPayloadSerializer(objectMapper, payloadFormat, compressionThreshold);
+        this.messageFactory = new OutboxMessageFactory(serializer);
+    }
+
+    Relay relay(String workerId, int lanes, long leaseSeconds, Consumer<TestEvent> listener) {
+        return relay(workerId, lanes, leaseSeconds, 3, listener);
+    }
+
+    Relay relay(String workerId, int lanes, long leaseSeconds, int maxRetryAttempts, Consumer<TestEvent> listener) {
+        List<TestEvent> published = new CopyOnWriteArrayList<>();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxProcessorService service = new OutboxProcessorService(
+                databaseClient,
+                new DomainEventPublisher(event -> {
+                    listener.accept((TestEvent) event);
+                    published.add((TestEvent) event);
+                }),
+                serializer,
+                new OutboxPendingGauge(databaseClient, meterRegistry),
+                new OutboxPollingController(meterRegistry, 100, 10, 1000, 100, 30_000, 500),
+                maxRetryAttempts, 1000, 300_000, lanes, leaseSeconds, workerId);
+        return new Relay(service, published);
+    }
+
+    /**
+     * Grava uma mensagem por rótulo, na ordem dada, com instantes de ocorrência crescentes.
+     */
+    List<TestEvent> save(UUID aggregateId, String... labels) {
+        Instant base = Instant.now();
+        List<TestEvent> events = IntStream.range(0, labels.length)
+                .mapToObj(i -> new TestEvent(labels[i], base.plusMillis(i)))
+                .toList();
+        R2dbcOutbox outbox = new R2dbcOutbox(databaseClient, 100);
+        outbox.save(events.stream().map(event -> messageFactory.createFrom(aggregateId, event)).toList()).block();
+        return events;
+    }
+
+    List<Map<String, Object>> rows(String sql) {
+        return databaseClient.sql(sql).fetch().all().collectList().block();
+    }
+
+    @Override
+    public void close() {
+        pool.dispose();
+    }
+
+    record Relay(OutboxProcessorService service, List<TestEvent> published) {
+
+        int poll(int batchSize) {
+            return service.pollBatch(batchSize).block();
+        }
+
+        List<String> labels() {
+            return published.stream().map(TestEvent::getLabel).toList();
+        }
+    }
+
+    public static class TestEvent extends DomainEventBase {
+
+        private String label;
+
+        // Usado pelo Jackson na desserialização feita pelo relay
+        public TestEvent() {
+        }
+
+        TestEvent(String label, Instant occurredOn) {
+            super(UUID.randomUUID(), occurredOn, 1);
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+}
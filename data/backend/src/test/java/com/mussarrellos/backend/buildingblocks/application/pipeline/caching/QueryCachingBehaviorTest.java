@@ -0,0 +1,178 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.caching;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mussarrellos.backend.modules.customer.application.queries.GetCustomerByEmailQuery;
+import com.mussarrellos.backend.modules.customer.application.queries.GetCustomerByIdQuery;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerEmailChangedEvent;
+import com.mussarrellos.backend.modules.customer.domain.events.CustomerPasswordChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.api.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCachingBehaviorTest {
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final Map<Object, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+    private QueryCachingBehavior behavior;
+    private QueryCacheEvictions evictions;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        behavior = new QueryCachingBehavior(new SimpleMeterRegistry());
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        evictions = new QueryCacheEvictions(behavior, null, null, objectMapper);
+        ReflectionTestUtils.setField(evictions, "notificationsEnabled", false);
+    }
+
+    @Test
+    void repeatedQueryIsServedFromCache() {
+        query(new GetCustomerByIdQuery(alice));
+        query(new GetCustomerByIdQuery(alice));
+
+        assertThat(executionsOf(new GetCustomerByIdQuery(alice))).isEqualTo(1);
+    }
+
+    @Test
+    void emailChangeEvictsOnlyTheChangedCustomer() {
+        query(new GetCustomerByIdQuery(alice));
+        query(new GetCustomerByIdQuery(bob));
+
+        behavior.onDomainEvent(new CustomerEmailChangedEvent(alice, "alice@old.com", "alice@new.com"));
+
+        query(new GetCustomerByIdQuery(alice));
+        query(new GetCustomerByIdQuery(bob));
+        assertThat(executionsOf(new GetCustomerByIdQuery(alice))).isEqualTo(2);
+        assertThat(executionsOf(new GetCustomerByIdQuery(bob))).isEqualTo(1);
+    }
+
+    @Test
+    void emailChangeEvictsOldAndNewEmailEntries() {
+        query(new GetCustomerByEmailQuery("alice@old.com"));
+        query(new GetCustomerByEmailQuery("alice@new.com"));
+        query(new GetCustomerByEmailQuery("bob@mail.com"));
+
+        behavior.onDomainEvent(new CustomerEmailChangedEvent(alice, "alice@old.com", "alice@new.com"));
+
+        query(new GetCustomerByEmailQuery("alice@old.com"));
+        query(new GetCustomerByEmailQuery("alice@new.com"));
+        query(new GetCustomerByEmailQuery("bob@mail.com"));
+        assertThat(executionsOf(new GetCustomerByEmailQuery("alice@old.com"))).isEqualTo(2);
+        assertThat(executionsOf(new GetCustomerByEmailQuery("alice@new.com"))).isEqualTo(2);
+        assertThat(executionsOf(new GetCustomerByEmailQuery("bob@mail.com"))).isEqualTo(1);
+    }
+
+    @Test
+    void committedEventsEvictBeforeTheCommandCompletes() {
+        query(new GetCustomerByIdQuery(alice));
+        query(new GetCustomerByEmailQuery("alice@mail.com"));
+
+        evictions.committed(List.of(new CustomerPasswordChangedEvent(alice, "alice@mail.com"))).block();
+
+        query(new GetCustomerByIdQuery(alice));
+        query(new GetCustomerByEmailQuery("alice@mail.com"));
+        assertThat(executionsOf(new GetCustomerByIdQuery(alice))).isEqualTo(2);
+        assertThat(executionsOf(new GetCustomerByEmailQuery("alice@mail.com"))).isEqualTo(2);
+    }
+
+    @Test
+    void readStartedBeforeAnEvictionIsNotCached() {
+        Sinks.One<String> slowRead = Sinks.one();
+        Mono<String> inFlight = behavior.handle(new GetCustomerByIdQuery(alice), this, slowRead::asMono);
+        inFlight.subscribe();
+
+        behavior.onDomainEvent(new CustomerEmailChangedEvent(alice, "alice@old.com", "alice@new.com"));
+        slowRead.tryEmitValue("stale");
+
+        assertThat(query(new GetCustomerByIdQuery(alice))).isEqualTo("fresh");
+    }
+
+    @Test
+    void evictionNotifiedByAnotherInstanceIsApplied() throws Exception {
+        query(new GetCustomerByIdQuery(alice));
+
+        String payload = objectMapper.writeValueAsString(Map.of(
+                "node", UUID.randomUUID().toString(),
+                "type", CustomerEmailChangedEvent.class.getName(),
+                "event", new CustomerEmailChangedEvent(alice, "alice@old.com", "alice@new.com")));
+        evictions.received(notification(payload));
+
+        query(new GetCustomerByIdQuery(alice));
+        assertThat(executionsOf(new GetCustomerByIdQuery(alice))).isEqualTo(2);
+    }
+
+    @Test
+    void notifiedTypeThatEvictsNoCacheIsNeitherLoadedNorApplied() throws Exception {
+        query(new GetCustomerByIdQuery(alice));
+
+        String payload = objectMapper.writeValueAsString(Map.of(
+                "node", UUID.randomUUID().toString(),
+                "type", Tripwire.class.getName(),
+                "event", Map.of()));
+        evictions.received(notification(payload));
+
+        assertThat(TRIPWIRE_INITIALIZED).isFalse();
+        query(new GetCustomerByIdQuery(alice));
+        assertThat(executionsOf(new GetCustomerByIdQuery(alice))).isEqualTo(1);
+    }
+
+    private String query(Object query) {
+        return behavior.<String>handle(query, this, () -> {
+            executions.computeIfAbsent(query, key -> new AtomicInteger()).incrementAndGet();
+            return Mono.just("fresh");
+        }).block();
+    }
+
+    private int executionsOf(Object query) {
+        AtomicInteger count = executions.get(query);
+        return count == null ? 0 : count.get();
+    }
+
+    private static final AtomicBoolean TRIPWIRE_INITIALIZED = new AtomicBoolean();
+
+    static class Tripwire {
+
+        static {
+            TRIPWIRE_INITIALIZED.set(true);
+        }
+    }
+
+    private static Notification notification(String payload) {
+        return new Notification() {
+            @Override
+            public String getName() {
+                return QueryCacheEvictions.CHANNEL;
+            }
+
+            @Override
+            public int getProcessId() {
+                return 0;
+            }
+
+            @Override
+            public String getParameter() {
+                return payload;
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.coalescing;
+
+import com.mussarrellos.backend.buildingblocks.application.deadline.Deadline;
+import com.mussarrellos.backend.buildingblocks.application.deadline.DeadlineExceededException;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestHandlerDelegate;
+import com.mussarrellos.backend.buildingblocks.application.queries.IQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCoalescingBehaviorTest {
+
+    private final QueryCoalescingBehavior behavior = new QueryCoalescingBehavior(new SimpleMeterRegistry());
+
+    @Test
+    void sharedExecutionOutlivesTheFirstCallersDeadline() {
+        Sinks.One<String> result = Sinks.one();
+        AtomicInteger executions = new AtomicInteger();
+        AtomicReference<Optional<Deadline>> deadlineSeen = new AtomicReference<>();
+        RequestHandlerDelegate<String> handler = () -> Mono.deferContextual(context -> {
+            executions.incrementAndGet();
+            deadlineSeen.set(Deadline.from(context));
+            return result.asMono();
+        });
+
+        Mono<String> hurried = Deadline.bound(behavior.handle(new Lookup("a"), this, handler))
+                .contextWrite(Deadline.after(Duration.ofMillis(50))::putInto);
+        Mono<String> patient = Deadline.bound(behavior.handle(new Lookup("a"), this, handler))
+                .contextWrite(Deadline.after(Duration.ofSeconds(10))::putInto);
+
+        AtomicReference<String> patientResult = new AtomicReference<>();
+        StepVerifier.create(hurried)
+                .then(() -> patient.subscribe(patientResult::set))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(5));
+
+        result.tryEmitValue("ok");
+
+        assertThat(patientResult.get()).isEqualTo("ok");
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(deadlineSeen.get()).isEmpty();
+    }
+
+    record Lookup(String key) implements IQuery<String> {}
+}
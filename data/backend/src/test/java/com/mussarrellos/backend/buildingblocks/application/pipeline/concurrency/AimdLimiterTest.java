@@ -0,0 +1,80 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTest {
+
+    private static final long BASELINE = 10_000_000;
+
+    @Test
+    void rejectsAboveTheLimitWithoutBlocking() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void growsAdditivelyWhileLatencyStaysNearBaselineAndTheLimitIsUsed() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 100);
+        limiter.onSample(BASELINE);
+        saturate(limiter);
+
+        // +1/limite por amostra: +1 a cada janela de "limite" amostras
+        for (int i = 0; i < 3; i++) limiter.onSample(BASELINE);
+        assertThat(limiter.limit()).isEqualTo(4);
+        limiter.onSample(BASELINE);
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void doesNotGrowWhileTheLimitIsMostlyIdle() {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 100);
+        limiter.onSample(BASELINE);
+
+        for (int i = 0; i < 100; i++) limiter.onSample(BASELINE);
+
+        assertThat(limiter.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void backsOffMultiplicativelyWhenLatencyExceedsTolerance() {
+        AimdLimiter limiter = new AimdLimiter(20, 1, 100);
+        limiter.onSample(BASELINE);
+
+        limiter.onSample(BASELINE * 3);
+        assertThat(limiter.limit()).isEqualTo(18);
+
+        limiter.onSample(BASELINE * 3);
+        assertThat(limiter.limit()).isEqualTo(16);
+    }
+
+    @Test
+    void staysWithinConfiguredBounds() {
+        AimdLimiter shrinking = new AimdLimiter(3, 2, 5);
+        shrinking.onSample(BASELINE);
+        for (int i = 0; i < 50; i++) shrinking.onSample(BASELINE * 10);
+        assertThat(shrinking.limit()).isEqualTo(2);
+
+        AimdLimiter growing = new AimdLimiter(4, 1, 5);
+        growing.onSample(BASELINE);
+        saturate(growing);
+        for (int i = 0; i < 500; i++) growing.onSample(BASELINE);
+        assertThat(growing.limit()).isEqualTo(5);
+
+        assertThat(new AimdLimiter(50, 1, 10).limit()).isEqualTo(10);
+    }
+
+    private static void saturate(AimdLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // ocupa o limite inteiro, como sob carga
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitBehaviorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitBehavior behavior = new ConcurrencyLimitBehavior(meterRegistry, 2, 1, 10);
+    private final Object handler = new Object();
+
+    @Test
+    void handlerThatThrowsBeforeReturningAMonoReleasesItsPermit() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> behavior.<String>handle("query", handler, () -> {
+                throw new IllegalArgumentException("id inválido");
+            }).block()).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(inFlight()).isZero();
+        assertThat(behavior.handle("query", handler, () -> Mono.just("ok")).block()).isEqualTo("ok");
+    }
+
+    @Test
+    void failedHandlerReleasesItsPermit() {
+        assertThatThrownBy(() -> behavior.<String>handle("query", handler,
+                () -> Mono.error(new IllegalStateException("falha"))).block())
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(inFlight()).isZero();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get(ConcurrencyLimitBehavior.IN_FLIGHT_METRIC)
+                .tag("handler", Object.class.getName())
+                .gauge()
+                .value();
+    }
+}
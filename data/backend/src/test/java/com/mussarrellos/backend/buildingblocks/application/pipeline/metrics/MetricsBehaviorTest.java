@@ -0,0 +1,65 @@
+package com.mussarrellos.backend.buildingblocks.application.pipeline.metrics;
+
+import com.mussarrellos.backend.buildingblocks.application.pipeline.PipelineBehavior;
+import com.mussarrellos.backend.buildingblocks.application.pipeline.RequestPipeline;
+import com.mussarrellos.backend.modules.customer.application.queries.GetCustomerByIdQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsBehaviorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestPipeline pipeline = pipeline(new MetricsBehavior(meterRegistry));
+
+    @Test
+    void handlerThatThrowsBeforeReturningAMonoIsRecordedAsAnError() {
+        GetCustomerByIdQuery query = new GetCustomerByIdQuery(UUID.randomUUID());
+
+        assertThatThrownBy(() -> pipeline.<String>execute(query, this, () -> {
+            throw new IllegalArgumentException("id inválido");
+        }).block()).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(active()).isZero();
+        assertThat(timerCount(MetricsBehavior.OUTCOME_ERROR)).isEqualTo(1);
+    }
+
+    @Test
+    void successfulRequestIsRecordedAndNoLongerActive() {
+        GetCustomerByIdQuery query = new GetCustomerByIdQuery(UUID.randomUUID());
+
+        assertThat(pipeline.execute(query, this, () -> Mono.just("ok")).block()).isEqualTo("ok");
+
+        assertThat(active()).isZero();
+        assertThat(timerCount(MetricsBehavior.OUTCOME_SUCCESS)).isEqualTo(1);
+    }
+
+    private double active() {
+        return meterRegistry.get(MetricsBehavior.ACTIVE_REQUESTS_METRIC)
+                .tag(MetricsBehavior.TYPE_TAG, GetCustomerByIdQuery.class.getName())
+                .gauge()
+                .value();
+    }
+
+    private long timerCount(String outcome) {
+        return meterRegistry.get(MetricsBehavior.REQUESTS_METRIC)
+                .tag(MetricsBehavior.TYPE_TAG, GetCustomerByIdQuery.class.getName())
+                .tag(MetricsBehavior.OUTCOME_TAG, outcome)
+                .timer()
+                .count();
+    }
+
+    private static RequestPipeline pipeline(PipelineBehavior... behaviors) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < behaviors.length; i++) {
+            beanFactory.registerSingleton("behavior" + i, behaviors[i]);
+        }
+        return new RequestPipeline(beanFactory.getBeanProvider(PipelineBehavior.class));
+    }
+}
@@ -0,0 +1,95 @@
+package com.mussarrellos.backend.buildingblocks.application.outbox;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Postgres real iniciado a partir do binário embarcado (zonky), com as migrations de
+ * {@code db/migration} aplicadas em ordem de versão. O relay depende de recursos do Postgres
+ * (SKIP LOCKED, LISTEN/NOTIFY, partições, jsonb), por isso não há driver em memória equivalente.
+ * Compartilhado pelos testes do relay e pelo benchmark de vazão.
+ */
+public final class EmbeddedOutboxDatabase implements AutoCloseable {
+
+    private static final Pattern MIGRATION_VERSION = Pattern.compile("^V([0-9_]+)__.*\\.sql$");
+
+    private final EmbeddedPostgres postgres;
+
+    public EmbeddedOutboxDatabase() throws IOException, SQLException {
+        this.postgres = EmbeddedPostgres.builder().start();
+        applyMigrations();
+    }
+
+    /**
+     * Pool R2DBC novo a cada chamada; quem o pede o descarta.
+     */
+    public ConnectionPool connectionPool(int maxSize) {
+        PostgresqlConnectionFactory factory = new PostgresqlConnectionFactory(
+                PostgresqlConnectionConfiguration.builder()
+                        .host("localhost")
+                        .port(postgres.getPort())
+                        .username("postgres")
+                        .database("postgres")
+                        .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(factory)
+                .initialSize(Math.min(4, maxSize))
+                .maxSize(maxSize)
+                .build());
+    }
+
+    public void reset() throws SQLException {
+        execute("TRUNCATE outbox_messages, outbox_dead_letters");
+    }
+
+    private void applyMigrations() throws IOException, SQLException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:db/migration/V*.sql");
+        Arrays.sort(migrations, Comparator
+                .comparing((Resource migration) -> version(migration.getFilename()), EmbeddedOutboxDatabase::compareVersions)
+                .thenComparing(Resource::getFilename));
+
+        for (Resource migration : migrations) {
+            // O PgJDBC executa o script inteiro, inclusive corpos $$ de funções, num único comando
+            execute(migration.getContentAsString(StandardCharsets.UTF_8));
+        }
+    }
+
+    public void execute(String sql) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int[] version(String filename) {
+        Matcher matcher = MIGRATION_VERSION.matcher(filename);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Nome de migration inválido: " + filename);
+        }
+        return Arrays.stream(matcher.group(1).split("_")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static int compareVersions(int[] left, int[] right) {
+        return Arrays.compare(left, right);
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}